@@ -1,6 +1,8 @@
 package ProofStrategies;
 
 public class BinomialCoefficientsandFactorial {
+    // Largest n whose n! fits in a long
+    private static final int MAX_LONG_FACTORIAL = 20;
 
     public static void main(String[] args) {
         // Example: Calculate factorials and binomial coefficients
@@ -13,27 +15,35 @@ public class BinomialCoefficientsandFactorial {
         // Calculate factorial recursively
         System.out.println("Recursive Factorial of " + n + ": " + factorialRecursive(n));
 
+        // Exact factorial for values far beyond the range of long
+        System.out.println("Exact Factorial of 25: " + FactorialEngine.factorial(25));
+
         // Calculate binomial coefficient
         System.out.println("Binomial Coefficient (" + n + " choose " + k + "): " + binomialCoefficient(n, k));
     }
 
     // 1. Iterative Factorial
     // This method calculates n! using a loop
+    // Only valid up to 20! - use FactorialEngine.factorial for larger n
     static long factorialIterative(int n) {
         long result = 1; // Start with 1 as factorials multiply
         for (int i = 1; i <= n; i++) {
-            result *= i; // Multiply result by i for each step
+            result = Math.multiplyExact(result, i); // Multiply result by i, failing loudly on overflow
         }
         return result; // Return the final factorial value
     }
 
     // 2. Recursive Factorial
     // This method calculates n! using recursion
+    // Like factorialIterative, only valid up to 20! - use FactorialEngine.factorial for larger n
     static long factorialRecursive(int n) {
-        if (n == 0 || n == 1) { // Base case: 0! = 1! = 1
+        if (n <= 1) { // Base case: 0! = 1! = 1 (and 1 for negative n, as in factorialIterative)
             return 1;
         }
-        return n * factorialRecursive(n - 1); // Recursive case: n! = n * (n-1)!
+        if (n > MAX_LONG_FACTORIAL) { // Fail before recursing n levels deep
+            throw new ArithmeticException(n + "! does not fit in a long; use FactorialEngine.factorial.");
+        }
+        return Math.multiplyExact(n, factorialRecursive(n - 1)); // Recursive case: n! = n * (n-1)!
     }
 
     // 3. Binomial Coefficient
@@ -43,7 +53,7 @@ public class BinomialCoefficientsandFactorial {
         if (k < 0 || k > n) {
             return 0; // Binomial coefficient is 0 if k is invalid
         }
-        // Use the factorial method to compute the formula
-        return factorialIterative(n) / (factorialIterative(k) * factorialIterative(n - k));
+        // The factorial formula overflows from n = 21, so use the multiplicative form instead
+        return BinomialService.binomialLong(n, k);
     }
 }
@@ -0,0 +1,249 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * BINOMIAL COEFFICIENTS WITHOUT OVERFLOW
+ *
+ * One place to evaluate C(n, k) = n! / (k! (n-k)!) with several back ends:
+ * 1. Exact long: the multiplicative formula C(n, k) = prod (n-k+i)/i,
+ *    reduced by a gcd at each step and checked for overflow.
+ * 2. Exact BigInteger: used when the long result would overflow.
+ *    Recently used rows of Pascal's triangle are cached so that queries
+ *    for nearby n are answered from a row instead of recomputed.
+ * 3. Modulo a prime p: Lucas' theorem writes n and k in base p and
+ *    multiplies the binomials of their digits.
+ */
+public class BinomialService {
+    // Rows of Pascal's triangle up to this n are eligible for caching
+    private static final int MAX_CACHED_ROW = 4096;
+
+    // Approximate memory the cached rows may hold; a row near n = 4096 takes about 1 MB
+    private static final long ROW_CACHE_BUDGET_BYTES = 4L << 20;
+
+    // Rough heap cost of one cached BigInteger besides its magnitude
+    private static final int BIG_INTEGER_OVERHEAD_BYTES = 56;
+
+    // Least recently used rows are evicted first; each row stores C(n, 0..n/2)
+    private static final Map<Integer, BigInteger[]> ROW_CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Estimated bytes held by ROW_CACHE (see rowBytes); guarded by ROW_CACHE
+    private static long rowCacheBytes;
+
+    public static void main(String[] args) {
+        // Fits in a long
+        System.out.println("C(60, 30) = " + binomialLong(60, 30));
+
+        // Too large for a long: falls back to BigInteger
+        System.out.println("C(100, 50) = " + binomial(100, 50));
+
+        // Nearby rows are served from the cache
+        System.out.println("C(101, 50) = " + binomial(101, 50));
+
+        // Modulo a prime with Lucas' theorem
+        System.out.println("C(10^18, 10^9) mod 1000003 = " + binomialMod(1_000_000_000_000_000_000L, 1_000_000_000L, 1_000_003));
+    }
+
+    /**
+     * Computes C(n, k) exactly as a long.
+     *
+     * @param n The number of elements
+     * @param k The number of elements chosen
+     * @return C(n, k), or 0 when k is outside [0, n]
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long binomialLong(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = Math.min(k, n - k); // Symmetry: C(n, k) = C(n, n-k)
+
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            // result * (n-k+i) / i is exact; dividing out gcd(result, i) first
+            // keeps the intermediate product as small as possible
+            long g = gcd(result, i);
+            result /= g;
+            long factor = (n - k + i) / (i / g);
+            result = Math.multiplyExact(result, factor);
+        }
+        return result;
+    }
+
+    /**
+     * Computes C(n, k) exactly, using the long fast path when possible.
+     *
+     * @param n The number of elements
+     * @param k The number of elements chosen
+     * @return C(n, k), or 0 when k is outside [0, n]
+     */
+    public static BigInteger binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return BigInteger.ZERO;
+        }
+        k = Math.min(k, n - k);
+
+        if (n <= MAX_CACHED_ROW) {
+            BigInteger[] row = cachedRow(n);
+            if (row != null) {
+                return row[k];
+            }
+        }
+
+        try {
+            return BigInteger.valueOf(binomialLong(n, k));
+        } catch (ArithmeticException overflow) {
+            // Fall through to the exact computation below
+        }
+
+        if (n <= MAX_CACHED_ROW) {
+            return row(n)[k];
+        }
+        return binomialBig(n, k);
+    }
+
+    /**
+     * Computes C(n, k) mod p with Lucas' theorem:
+     * C(n, k) = prod C(n_i, k_i) (mod p) where n_i, k_i are the base-p digits.
+     *
+     * @param n The number of elements
+     * @param k The number of elements chosen
+     * @param p A prime modulus
+     * @return C(n, k) mod p
+     */
+    public static long binomialMod(long n, long k, int p) {
+        if (p < 2) {
+            throw new IllegalArgumentException("p must be a prime.");
+        }
+        if (k < 0 || k > n) {
+            return 0;
+        }
+
+        long result = 1;
+        while (n > 0 || k > 0) {
+            int ni = (int) (n % p);
+            int ki = (int) (k % p);
+            if (ki > ni) {
+                return 0; // A digit of k exceeds the digit of n
+            }
+            result = result * smallBinomialMod(ni, ki, p) % p;
+            n /= p;
+            k /= p;
+        }
+        return result;
+    }
+
+    // C(n, k) mod p for 0 <= k <= n < p, using k! inverted by Fermat's little theorem
+    private static long smallBinomialMod(int n, int k, int p) {
+        k = Math.min(k, n - k);
+        long numerator = 1;
+        long denominator = 1;
+        for (int i = 1; i <= k; i++) {
+            numerator = numerator * (n - k + i) % p;
+            denominator = denominator * i % p;
+        }
+        return numerator * powMod(denominator, p - 2, p) % p;
+    }
+
+    // base^exponent mod m by repeated squaring
+    static long powMod(long base, long exponent, long m) {
+        long result = 1 % m;
+        base %= m;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * base % m;
+            }
+            base = base * base % m;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    // Multiplicative formula in BigInteger for rows too wide to cache
+    private static BigInteger binomialBig(int n, int k) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 1; i <= k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+        }
+        return result;
+    }
+
+    // Returns row n if cached, or derives it from a cached row n-1
+    private static BigInteger[] cachedRow(int n) {
+        synchronized (ROW_CACHE) {
+            BigInteger[] row = ROW_CACHE.get(n);
+            if (row == null && ROW_CACHE.containsKey(n - 1)) {
+                row = nextRow(ROW_CACHE.get(n - 1), n);
+                cacheRow(n, row);
+            }
+            return row;
+        }
+    }
+
+    // Returns row n, computing and caching it if needed
+    private static BigInteger[] row(int n) {
+        BigInteger[] row = cachedRow(n);
+        if (row != null) {
+            return row;
+        }
+
+        // Build the half row C(n, 0..n/2) multiplicatively
+        row = new BigInteger[n / 2 + 1];
+        row[0] = BigInteger.ONE;
+        for (int k = 1; k < row.length; k++) {
+            row[k] = row[k - 1].multiply(BigInteger.valueOf(n - k + 1)).divide(BigInteger.valueOf(k));
+        }
+        synchronized (ROW_CACHE) {
+            cacheRow(n, row);
+        }
+        return row;
+    }
+
+    // Adds a row, then evicts least recently used rows until the cache is within budget; hold ROW_CACHE
+    private static void cacheRow(int n, BigInteger[] row) {
+        BigInteger[] replaced = ROW_CACHE.put(n, row);
+        if (replaced != null) {
+            rowCacheBytes -= rowBytes(replaced);
+        }
+        rowCacheBytes += rowBytes(row);
+        Iterator<BigInteger[]> eldest = ROW_CACHE.values().iterator();
+        while (rowCacheBytes > ROW_CACHE_BUDGET_BYTES && ROW_CACHE.size() > 1) {
+            rowCacheBytes -= rowBytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    // Estimated heap size of a row: its magnitudes plus a fixed cost per entry
+    private static long rowBytes(BigInteger[] row) {
+        long bytes = 16 + 4L * row.length;
+        for (BigInteger value : row) {
+            bytes += value.bitLength() / 8 + BIG_INTEGER_OVERHEAD_BYTES;
+        }
+        return bytes;
+    }
+
+    // Pascal's rule: C(n, k) = C(n-1, k-1) + C(n-1, k)
+    private static BigInteger[] nextRow(BigInteger[] previous, int n) {
+        BigInteger[] row = new BigInteger[n / 2 + 1];
+        row[0] = BigInteger.ONE;
+        for (int k = 1; k < row.length; k++) {
+            // previous holds C(n-1, 0..(n-1)/2); use symmetry past the middle
+            int right = Math.min(k, n - 1 - k);
+            row[k] = previous[k - 1].add(previous[right]);
+        }
+        return row;
+    }
+
+    // Greatest common divisor by Euclid's algorithm
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,130 @@
+package ProofStrategies;
+
+/*
+ * PRECOMPUTED BINOMIAL COEFFICIENTS MODULO A PRIME
+ *
+ * With the tables
+ *     fact[i]    = i! mod p
+ *     invFact[i] = (i!)^(-1) mod p
+ * every query is answered with two multiplications:
+ *     C(n, k) = fact[n] * invFact[k] * invFact[n-k] (mod p)
+ *
+ * The tables are built once in O(N): the factorials by a running product,
+ * the inverse of N! by Fermat's little theorem, and the remaining inverses
+ * downwards using (i-1)!^(-1) = i!^(-1) * i.
+ *
+ * Entries are stored as int (p < 2^31) to halve the memory traffic per lookup.
+ */
+public class BinomialTable {
+    private final int maxN;       // Largest n the tables cover
+    private final int p;          // Prime modulus
+    private final int[] fact;     // fact[i] = i! mod p
+    private final int[] invFact;  // invFact[i] = (i!)^(-1) mod p
+
+    /**
+     * Builds factorial and inverse-factorial tables for 0 <= n <= maxN.
+     *
+     * @param maxN The largest n that will be queried
+     * @param p A prime modulus greater than maxN, so that no i! vanishes mod p
+     */
+    public BinomialTable(int maxN, int p) {
+        if (maxN < 0) {
+            throw new IllegalArgumentException("maxN must be non-negative.");
+        }
+        if (p <= maxN || p < 2) {
+            throw new IllegalArgumentException("p must be a prime greater than maxN.");
+        }
+        this.maxN = maxN;
+        this.p = p;
+        this.fact = new int[maxN + 1];
+        this.invFact = new int[maxN + 1];
+
+        fact[0] = 1;
+        for (int i = 1; i <= maxN; i++) {
+            fact[i] = (int) ((long) fact[i - 1] * i % p);
+        }
+
+        invFact[maxN] = (int) BinomialService.powMod(fact[maxN], p - 2, p);
+        for (int i = maxN; i > 0; i--) {
+            invFact[i - 1] = (int) ((long) invFact[i] * i % p);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Tables up to one million modulo the prime 10^9 + 7
+        BinomialTable table = new BinomialTable(1_000_000, 1_000_000_007);
+        System.out.println("C(1000000, 500000) mod p = " + table.binomial(1_000_000, 500_000));
+
+        // Answer a batch of random queries
+        int count = 10_000_000;
+        int[] ns = new int[count];
+        int[] ks = new int[count];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < count; i++) {
+            ns[i] = random.nextInt(1_000_001);
+            ks[i] = random.nextInt(ns[i] + 1);
+        }
+        long[] results = new long[count];
+
+        long start = System.nanoTime();
+        table.binomial(ns, ks, results);
+        long elapsed = System.nanoTime() - start;
+        System.out.println(count + " queries in " + elapsed / 1_000_000 + " ms");
+    }
+
+    /**
+     * Returns C(n, k) mod p.
+     *
+     * @param n The number of elements, at most maxN
+     * @param k The number of elements chosen
+     * @return C(n, k) mod p, or 0 when k is outside [0, n]
+     */
+    public long binomial(int n, int k) {
+        if (n > maxN) {
+            throw new IllegalArgumentException("n exceeds the table size " + maxN + ".");
+        }
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        return (long) fact[n] * invFact[k] % p * invFact[n - k] % p;
+    }
+
+    /**
+     * Answers a batch of queries: results[i] = C(ns[i], ks[i]) mod p.
+     *
+     * @param ns The values of n, each at most maxN
+     * @param ks The values of k
+     * @param results The array to fill, at least as long as ns
+     */
+    public void binomial(int[] ns, int[] ks, long[] results) {
+        if (ns.length != ks.length || results.length < ns.length) {
+            throw new IllegalArgumentException("ns, ks and results must have matching lengths.");
+        }
+        int[] fact = this.fact;        // Local copies keep the loop free of field loads
+        int[] invFact = this.invFact;
+        long p = this.p;
+
+        for (int i = 0; i < ns.length; i++) {
+            int n = ns[i];
+            int k = ks[i];
+            if (n > maxN) {
+                throw new IllegalArgumentException("n exceeds the table size " + maxN + ".");
+            }
+            if (k < 0 || k > n) {
+                results[i] = 0;
+            } else {
+                results[i] = fact[n] * (long) invFact[k] % p * invFact[n - k] % p;
+            }
+        }
+    }
+
+    // The largest n covered by the tables
+    public int maxN() {
+        return maxN;
+    }
+
+    // The prime modulus
+    public int modulus() {
+        return p;
+    }
+}
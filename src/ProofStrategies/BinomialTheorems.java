@@ -1,5 +1,7 @@
 package ProofStrategies;
 
+import java.math.BigInteger;
+
 public class BinomialTheorems {
     public static void main(String[] args) {
         int a = 1; // Coefficient of 'a'
@@ -12,18 +14,20 @@ public class BinomialTheorems {
     }
 
     // Method to expand (a + b)^n using the Binomial Theorem
+    // Term k is C(n, k) * a^(n-k) * b^k, the coefficient of x^k in (a + b x)^n,
+    // so all terms are computed at once and exactly by PolynomialExpansion
     static void expandBinomial(int a, int b, int n) {
+        BigInteger[] terms = PolynomialExpansion.binomialExpansion(a, b, n);
         for (int k = 0; k <= n; k++) { // Iterate from k = 0 to k = n
-            int coefficient = binomialCoefficient(n, k); // Calculate binomial coefficient
-            int term = coefficient * pow(a, n - k) * pow(b, k); // Compute the term
-            System.out.print(term + (k < n ? " + " : "")); // Print the term with formatting
+            System.out.print(terms[k] + (k < n ? " + " : "")); // Print the term with formatting
         }
         System.out.println();
     }
 
     // Manual calculation of binomial coefficient
     static int binomialCoefficient(int n, int k) {
-        return factorial(n) / (factorial(k) * factorial(n - k)); // C(n, k) = n! / (k!(n-k)!)
+        // C(n, k) = n! / (k!(n-k)!), evaluated without forming the factorials
+        return Math.toIntExact(BinomialService.binomialLong(n, k));
     }
 
     // Manual factorial calculation
@@ -0,0 +1,219 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * EXACT FACTORIALS FOR LARGE n
+ *
+ * The factorial is computed with Luschny's prime-swing algorithm:
+ *     n! = ((n/2)!)^2 * swing(n)
+ * where swing(n) = n! / ((n/2)!)^2 is a product of small prime powers.
+ *
+ * The prime powers are multiplied together with a balanced product tree
+ * (binary splitting), so the big multiplications are done on numbers of
+ * similar size. Subtrees are split across ForkJoin workers.
+ *
+ * Previously computed factorials are kept in a small cache. A request for n
+ * starts from the largest cached m <= n and only multiplies (m+1)...n.
+ */
+public class FactorialEngine {
+    // Below this many factors a product is computed on the current thread
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    // Factorials below this size are not worth caching or parallelising
+    private static final int SMALL_LIMIT = 256;
+
+    // Maximum number of cached factorials
+    private static final int CACHE_CAPACITY = 32;
+
+    // Cache of previously computed factorials, keyed by n
+    private static final TreeMap<Integer, BigInteger> CACHE = new TreeMap<>();
+
+    public static void main(String[] args) {
+        int n = 100_000; // Example value for n
+
+        long start = System.nanoTime();
+        BigInteger f = factorial(n);
+        long elapsed = System.nanoTime() - start;
+        System.out.println(n + "! has " + f.bitLength() + " bits (" + elapsed / 1_000_000 + " ms)");
+
+        // A second call for a nearby n reuses the cached value
+        start = System.nanoTime();
+        BigInteger g = factorial(n + 1000);
+        elapsed = System.nanoTime() - start;
+        System.out.println((n + 1000) + "! has " + g.bitLength() + " bits (" + elapsed / 1_000_000 + " ms)");
+
+        // Small values agree with the iterative definition
+        System.out.println("20! = " + factorial(20));
+    }
+
+    /**
+     * Computes n! exactly.
+     *
+     * @param n A non-negative integer
+     * @return n!
+     */
+    public static BigInteger factorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        if (n < SMALL_LIMIT) {
+            return product(1, n); // Direct product is fastest for small n
+        }
+
+        // Start from the largest cached factorial not exceeding n
+        Map.Entry<Integer, BigInteger> cached;
+        synchronized (CACHE) {
+            cached = CACHE.floorEntry(n);
+        }
+
+        BigInteger result;
+        if (cached != null && cached.getKey() == n) {
+            return cached.getValue();
+        } else if (cached != null && n - cached.getKey() < n / 4) {
+            // Close enough: extend m! to n! with a product tree over (m+1)...n
+            result = cached.getValue().multiply(product(cached.getKey() + 1, n));
+        } else {
+            result = primeSwingFactorial(n, sieve(n));
+        }
+
+        remember(n, result);
+        return result;
+    }
+
+    /**
+     * Computes the product lo * (lo + 1) * ... * hi with a parallel product tree.
+     * The empty product (lo > hi) is 1.
+     */
+    static BigInteger product(int lo, int hi) {
+        if (lo > hi) {
+            return BigInteger.ONE;
+        }
+        long[] factors = new long[hi - lo + 1];
+        for (int i = 0; i < factors.length; i++) {
+            factors[i] = lo + i;
+        }
+        return productTree(factors, factors.length);
+    }
+
+    // n! = ((n/2)!)^2 * swing(n), expanded recursively down to small n
+    private static BigInteger primeSwingFactorial(int n, boolean[] composite) {
+        if (n < SMALL_LIMIT) {
+            return product(1, n);
+        }
+        BigInteger half = primeSwingFactorial(n / 2, composite);
+        return half.pow(2).multiply(swing(n, composite));
+    }
+
+    /*
+     * swing(n) = n! / ((n/2)!)^2
+     * The exponent of a prime p in swing(n) is the number of odd values in
+     * floor(n/p), floor(n/p^2), ... so every prime power factor is at most n.
+     */
+    private static BigInteger swing(int n, boolean[] composite) {
+        long[] factors = new long[n / 2 + 1];
+        int count = 0;
+
+        for (int p = 2; p <= n; p++) {
+            if (composite[p]) {
+                continue;
+            }
+            int q = n;
+            long power = 1;
+            while ((q /= p) > 0) {
+                if ((q & 1) == 1) {
+                    power *= p;
+                }
+            }
+            if (power > 1) {
+                factors[count++] = power;
+            }
+        }
+        return productTree(factors, count);
+    }
+
+    // Multiplies factors[0..count) together, splitting large trees across workers
+    private static BigInteger productTree(long[] factors, int count) {
+        if (count <= SEQUENTIAL_THRESHOLD) {
+            return sequentialProduct(factors, 0, count);
+        }
+        return ForkJoinPool.commonPool().invoke(new ProductTask(factors, 0, count));
+    }
+
+    // Balanced product of factors[from..to) on the current thread
+    private static BigInteger sequentialProduct(long[] factors, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return BigInteger.ONE;
+        }
+        if (length <= 4) {
+            // Multiply a few factors in a long while the product still fits
+            BigInteger result = BigInteger.ONE;
+            long partial = 1;
+            for (int i = from; i < to; i++) {
+                long f = factors[i];
+                if (partial > Long.MAX_VALUE / f) {
+                    result = result.multiply(BigInteger.valueOf(partial));
+                    partial = 1;
+                }
+                partial *= f;
+            }
+            return result.multiply(BigInteger.valueOf(partial));
+        }
+        int mid = (from + to) >>> 1;
+        return sequentialProduct(factors, from, mid).multiply(sequentialProduct(factors, mid, to));
+    }
+
+    // Sieve of Eratosthenes: composite[i] is true when i is not prime
+    private static boolean[] sieve(int n) {
+        boolean[] composite = new boolean[n + 1];
+        for (int i = 2; (long) i * i <= n; i++) {
+            if (!composite[i]) {
+                for (int j = i * i; j <= n; j += i) {
+                    composite[j] = true;
+                }
+            }
+        }
+        return composite;
+    }
+
+    // Stores a factorial in the cache, evicting the smallest entry when full
+    private static void remember(int n, BigInteger value) {
+        synchronized (CACHE) {
+            CACHE.put(n, value);
+            if (CACHE.size() > CACHE_CAPACITY) {
+                CACHE.pollFirstEntry(); // Smallest factorials are cheapest to recompute
+            }
+        }
+    }
+
+    // Fork/join task computing the product of factors[from..to)
+    @SuppressWarnings("serial")
+    private static class ProductTask extends RecursiveTask<BigInteger> {
+        private final long[] factors;
+        private final int from;
+        private final int to;
+
+        ProductTask(long[] factors, int from, int to) {
+            this.factors = factors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return sequentialProduct(factors, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ProductTask left = new ProductTask(factors, from, mid);
+            left.fork();
+            BigInteger right = new ProductTask(factors, mid, to).compute();
+            return left.join().multiply(right);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * CHECKING A RECURRENCE AGAINST A CLOSED FORM
+ *
+ * A sequence is defined by a base value S(from) and a recurrence
+ *     S(n) = step(n, S(n-1))
+ * and we want to confirm that S(n) = closed(n) for every n in [from, to].
+ *
+ * The base case compares S(from) with closed(from). For the inductive step,
+ * the range is cut into chunks. Each chunk is seeded with closed(start - 1),
+ * which is valid as long as all earlier n passed, and then runs the
+ * recurrence on its own. Chunks are therefore independent and are spread
+ * over ForkJoin workers.
+ *
+ * When a chunk finds a counterexample it records it; chunks that lie
+ * entirely after the smallest known counterexample stop immediately, so the
+ * result is always the first n at which the identity fails.
+ *
+ * The long flavour evaluates the closed form and the recurrence in ordinary
+ * (wrapping) long arithmetic, exactly as the callbacks are written. That is
+ * not the same as checking the identity modulo 2^64: a closed form that
+ * divides after a multiplication that overflowed, such as n * (n + 1) / 2
+ * for n above about 3 * 10^9, returns a wrong value and the check reports a
+ * false counterexample. Use the BigInteger flavour (verifyBig) whenever any
+ * intermediate value can exceed the range of a long.
+ */
+public class InductionVerifier {
+    // Values of n checked by one worker before the range is split further
+    private static final long CHUNK_SIZE = 1 << 16;
+
+    // How often a running chunk checks whether an earlier counterexample was found
+    private static final long CANCEL_CHECK_INTERVAL = 1 << 10;
+
+    // The recurrence S(n) = next(n, S(n-1)) over long values
+    public interface LongStep {
+        long next(long n, long previous);
+    }
+
+    // The conjectured closed form S(n) over long values
+    public interface LongClosedForm {
+        long value(long n);
+    }
+
+    // The recurrence S(n) = next(n, S(n-1)) over BigInteger values
+    public interface BigStep {
+        BigInteger next(long n, BigInteger previous);
+    }
+
+    // The conjectured closed form S(n) over BigInteger values
+    public interface BigClosedForm {
+        BigInteger value(long n);
+    }
+
+    public static void main(String[] args) {
+        // Sum of the first n integers: S(1) = 1, S(n) = S(n-1) + n, S(n) = n(n+1)/2
+        long limit = 100_000_000L;
+        long start = System.nanoTime();
+        OptionalLong failure = verify(1, limit, 1,
+                n -> n * (n + 1) / 2,
+                (n, previous) -> previous + n);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Sum formula up to " + limit + ": "
+                + (failure.isPresent() ? "fails at n = " + failure.getAsLong() : "holds")
+                + " (" + elapsed / 1_000_000 + " ms)");
+
+        // Sum of squares in exact arithmetic: S(n) = n(n+1)(2n+1)/6
+        failure = verifyBig(1, 1_000_000, BigInteger.ONE,
+                n -> BigInteger.valueOf(n).multiply(BigInteger.valueOf(n + 1))
+                        .multiply(BigInteger.valueOf(2 * n + 1)).divide(BigInteger.valueOf(6)),
+                (n, previous) -> previous.add(BigInteger.valueOf(n).multiply(BigInteger.valueOf(n))));
+        System.out.println("Sum of squares up to 1000000: " + (failure.isPresent() ? "fails" : "holds"));
+
+        // A false conjecture is reported at its first counterexample: S(0) = 1, S(n) = 2 S(n-1) is not n + 1
+        failure = verify(0, 1_000_000, 1, n -> n + 1, (n, previous) -> 2 * previous);
+        System.out.println("2^n = n + 1 first fails at n = " + failure.getAsLong());
+    }
+
+    /**
+     * Checks S(n) = closed(n) for every n in [from, to] in long arithmetic.
+     * The callbacks must not overflow on this range; otherwise use verifyBig.
+     *
+     * @param from The first index
+     * @param to The last index (inclusive)
+     * @param base The value S(from)
+     * @param closed The conjectured closed form
+     * @param step The recurrence
+     * @return The smallest n where the identity fails, or empty if it holds throughout
+     */
+    public static OptionalLong verify(long from, long to, long base, LongClosedForm closed, LongStep step) {
+        checkRange(from, to);
+        if (closed.value(from) != base) {
+            return OptionalLong.of(from); // Base case fails
+        }
+        AtomicLong firstFailure = new AtomicLong(Long.MAX_VALUE);
+        if (from < to) {
+            ForkJoinPool.commonPool().invoke(new LongChunk(from + 1, to, closed, step, firstFailure));
+        }
+        return result(firstFailure);
+    }
+
+    /**
+     * Checks S(n) = closed(n) for every n in [from, to] in exact arithmetic.
+     *
+     * @param from The first index
+     * @param to The last index (inclusive)
+     * @param base The value S(from)
+     * @param closed The conjectured closed form
+     * @param step The recurrence
+     * @return The smallest n where the identity fails, or empty if it holds throughout
+     */
+    public static OptionalLong verifyBig(long from, long to, BigInteger base, BigClosedForm closed, BigStep step) {
+        checkRange(from, to);
+        if (!closed.value(from).equals(base)) {
+            return OptionalLong.of(from);
+        }
+        AtomicLong firstFailure = new AtomicLong(Long.MAX_VALUE);
+        if (from < to) {
+            ForkJoinPool.commonPool().invoke(new BigChunk(from + 1, to, closed, step, firstFailure));
+        }
+        return result(firstFailure);
+    }
+
+    private static void checkRange(long from, long to) {
+        if (from > to || to == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Need from <= to < Long.MAX_VALUE.");
+        }
+    }
+
+    private static OptionalLong result(AtomicLong firstFailure) {
+        long n = firstFailure.get();
+        return n == Long.MAX_VALUE ? OptionalLong.empty() : OptionalLong.of(n);
+    }
+
+    // Lowers the recorded counterexample to n if n is earlier
+    private static void recordFailure(AtomicLong firstFailure, long n) {
+        firstFailure.accumulateAndGet(n, Math::min);
+    }
+
+    // Inductive step for n in [lo, hi], seeded from closed(lo - 1)
+    @SuppressWarnings("serial")
+    private static class LongChunk extends RecursiveAction {
+        private final long lo;
+        private final long hi;
+        private final LongClosedForm closed;
+        private final LongStep step;
+        private final AtomicLong firstFailure;
+
+        LongChunk(long lo, long hi, LongClosedForm closed, LongStep step, AtomicLong firstFailure) {
+            this.lo = lo;
+            this.hi = hi;
+            this.closed = closed;
+            this.step = step;
+            this.firstFailure = firstFailure;
+        }
+
+        @Override
+        protected void compute() {
+            if (lo > firstFailure.get()) {
+                return; // An earlier counterexample is already known
+            }
+            if (hi - lo < CHUNK_SIZE) {
+                long value = closed.value(lo - 1);
+                for (long n = lo; n <= hi; n++) {
+                    value = step.next(n, value);
+                    if (value != closed.value(n)) {
+                        recordFailure(firstFailure, n);
+                        return;
+                    }
+                    if ((n & (CANCEL_CHECK_INTERVAL - 1)) == 0 && n > firstFailure.get()) {
+                        return;
+                    }
+                }
+                return;
+            }
+            long mid = lo + (hi - lo) / 2;
+            invokeAll(new LongChunk(lo, mid, closed, step, firstFailure),
+                    new LongChunk(mid + 1, hi, closed, step, firstFailure));
+        }
+    }
+
+    // Inductive step for n in [lo, hi] in BigInteger arithmetic
+    @SuppressWarnings("serial")
+    private static class BigChunk extends RecursiveAction {
+        private final long lo;
+        private final long hi;
+        private final BigClosedForm closed;
+        private final BigStep step;
+        private final AtomicLong firstFailure;
+
+        BigChunk(long lo, long hi, BigClosedForm closed, BigStep step, AtomicLong firstFailure) {
+            this.lo = lo;
+            this.hi = hi;
+            this.closed = closed;
+            this.step = step;
+            this.firstFailure = firstFailure;
+        }
+
+        @Override
+        protected void compute() {
+            if (lo > firstFailure.get()) {
+                return;
+            }
+            if (hi - lo < CHUNK_SIZE) {
+                BigInteger value = closed.value(lo - 1);
+                for (long n = lo; n <= hi; n++) {
+                    value = step.next(n, value);
+                    if (!value.equals(closed.value(n))) {
+                        recordFailure(firstFailure, n);
+                        return;
+                    }
+                    if ((n & (CANCEL_CHECK_INTERVAL - 1)) == 0 && n > firstFailure.get()) {
+                        return;
+                    }
+                }
+                return;
+            }
+            long mid = lo + (hi - lo) / 2;
+            invokeAll(new BigChunk(lo, mid, closed, step, firstFailure),
+                    new BigChunk(mid + 1, hi, closed, step, firstFailure));
+        }
+    }
+}
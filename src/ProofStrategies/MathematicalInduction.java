@@ -1,5 +1,7 @@
 package ProofStrategies;
 
+import java.util.OptionalLong;
+
 // This program demonstrates the concept of mathematical induction using Java.
 // Specifically, we will verify the formula for the sum of the first n positive integers: S(n) = n * (n + 1) / 2
 
@@ -45,23 +47,18 @@ public class MathematicalInduction {
 
     // Inductive step: Assume S(k) holds and verify it holds for S(k + 1)
     static boolean inductiveStep(int n) {
-        // Loop through values of k from 1 to n-1
-        for (int k = 1; k < n; k++) {
-            // Calculate S(k) using the formula
-            int assumedSum = k * (k + 1) / 2;
-
-            // Calculate S(k + 1) using the inductive definition: S(k+1) = S(k) + (k+1)
-            int actualSum = assumedSum + (k + 1);
+        // For every k from 1 to n-1, S(k+1) = S(k) + (k+1) must match the formula (k+1)(k+2)/2.
+        // InductionVerifier checks the range in parallel chunks and in long arithmetic,
+        // so n is no longer limited by int overflow.
+        OptionalLong failure = InductionVerifier.verify(1, n, 1,
+                k -> k * (k + 1) / 2,                  // Closed form S(k) = k(k+1)/2
+                (k, previousSum) -> previousSum + k);  // Recurrence S(k) = S(k-1) + k
 
-            // Verify it matches the formula for S(k + 1): (k+1)(k+2)/2
-            int formulaResult = (k + 1) * (k + 2) / 2;
-
-            // If the results don't match, print an error and return false
-            if (actualSum != formulaResult) {
-                System.out.println("Inductive step failed for k = " + k +
-                        ": calculated = " + actualSum + ", formula = " + formulaResult);
-                return false;
-            }
+        // If a case fails, print an error and return false
+        if (failure.isPresent()) {
+            long k = failure.getAsLong();
+            System.out.println("Inductive step failed for k = " + (k - 1) + ": formula does not give S(" + k + ")");
+            return false;
         }
 
         // If all cases pass, print success and return true
@@ -0,0 +1,203 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * STREAMING ROWS OF PASCAL'S TRIANGLE
+ *
+ * Each row is obtained from the previous one by Pascal's rule:
+ *     C(n+1, k) = C(n, k-1) + C(n, k)
+ * Updating k from right to left lets the row be overwritten in place,
+ * so a single buffer is reused for every row.
+ *
+ * Two variants are provided:
+ * - OfLong keeps the row in a long[] and is exact up to row 66.
+ * - OfBig keeps the row in a BigInteger[] and is exact for any row.
+ *   Wide rows are split into segments that are added in parallel,
+ *   which needs a second buffer because segments read the old row.
+ *
+ * The buffer returned by row() is overwritten by the next call to advance().
+ */
+public class PascalRows {
+    // Largest row whose entries all fit in a long
+    public static final int MAX_LONG_ROW = 66;
+
+    // Rows at least this wide are computed in parallel segments
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    // Number of entries one worker adds sequentially
+    private static final int SEGMENT_SIZE = 1024;
+
+    public static void main(String[] args) {
+        // Print the first few rows from the long variant
+        OfLong rows = new OfLong(MAX_LONG_ROW);
+        while (rows.advance() && rows.rowIndex() < 6) {
+            long[] row = rows.row();
+            for (int k = 0; k <= rows.rowIndex(); k++) {
+                System.out.print(row[k] + " ");
+            }
+            System.out.println();
+        }
+
+        // Stream wide rows through the BigInteger variant without printing them
+        int target = 5_000;
+        OfBig big = new OfBig(target);
+        long start = System.nanoTime();
+        while (big.rowIndex() < target) {
+            big.advance();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("C(" + target + ", " + target / 2 + ") has "
+                + big.row()[target / 2].bitLength() + " bits (" + elapsed / 1_000_000 + " ms)");
+    }
+
+    // Rows of Pascal's triangle in a reusable long[] buffer
+    public static class OfLong {
+        private final long[] row;  // Entries C(n, 0..n); later entries are unused
+        private final int maxRow;  // Last row this iterator will produce
+        private int n = -1;        // Index of the current row, -1 before the first advance
+
+        /**
+         * @param maxRow The last row to produce, at most MAX_LONG_ROW
+         */
+        public OfLong(int maxRow) {
+            if (maxRow < 0 || maxRow > MAX_LONG_ROW) {
+                throw new IllegalArgumentException("maxRow must be between 0 and " + MAX_LONG_ROW + ".");
+            }
+            this.maxRow = maxRow;
+            this.row = new long[maxRow + 1];
+        }
+
+        /**
+         * Moves to the next row.
+         *
+         * @return false once maxRow has already been produced
+         */
+        public boolean advance() {
+            if (n == maxRow) {
+                return false;
+            }
+            n++;
+            row[n] = 1;
+            for (int k = n - 1; k > 0; k--) { // Right to left so row[k-1] is still the old value
+                row[k] += row[k - 1];
+            }
+            return true;
+        }
+
+        // The current row; only entries 0..rowIndex() are meaningful
+        public long[] row() {
+            return row;
+        }
+
+        // The index n of the current row
+        public int rowIndex() {
+            return n;
+        }
+    }
+
+    // Rows of Pascal's triangle in a reusable BigInteger[] buffer
+    public static class OfBig {
+        private BigInteger[] row;   // Entries C(n, 0..n)
+        private BigInteger[] spare; // Second buffer for parallel updates
+        private final int maxRow;
+        private int n = -1;
+
+        /**
+         * @param maxRow The last row to produce
+         */
+        public OfBig(int maxRow) {
+            if (maxRow < 0) {
+                throw new IllegalArgumentException("maxRow must be non-negative.");
+            }
+            this.maxRow = maxRow;
+            this.row = new BigInteger[maxRow + 1];
+        }
+
+        /**
+         * Moves to the next row.
+         *
+         * @return false once maxRow has already been produced
+         */
+        public boolean advance() {
+            if (n == maxRow) {
+                return false;
+            }
+            n++;
+            if (n + 1 >= PARALLEL_THRESHOLD) {
+                advanceParallel();
+            } else {
+                row[n] = BigInteger.ONE;
+                for (int k = n - 1; k > 0; k--) {
+                    row[k] = row[k].add(row[k - 1]);
+                }
+                row[0] = BigInteger.ONE;
+            }
+            return true;
+        }
+
+        // next[k] = row[k-1] + row[k], each segment on its own worker
+        private void advanceParallel() {
+            if (spare == null) {
+                spare = new BigInteger[row.length];
+            }
+            ForkJoinPool.commonPool().invoke(new SegmentTask(row, spare, 1, n));
+            spare[0] = BigInteger.ONE;
+            spare[n] = BigInteger.ONE;
+
+            BigInteger[] swap = row;
+            row = spare;
+            spare = swap;
+        }
+
+        // The current row; only entries 0..rowIndex() are meaningful
+        public BigInteger[] row() {
+            return row;
+        }
+
+        // The index n of the current row
+        public int rowIndex() {
+            return n;
+        }
+
+        // Releases the spare buffer once wide rows are no longer needed
+        public void trim() {
+            if (spare != null) {
+                Arrays.fill(spare, null);
+                spare = null;
+            }
+        }
+    }
+
+    // Fork/join task computing next[k] = previous[k-1] + previous[k] for k in [from, to)
+    @SuppressWarnings("serial")
+    private static class SegmentTask extends RecursiveAction {
+        private final BigInteger[] previous;
+        private final BigInteger[] next;
+        private final int from;
+        private final int to;
+
+        SegmentTask(BigInteger[] previous, BigInteger[] next, int from, int to) {
+            this.previous = previous;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEGMENT_SIZE) {
+                for (int k = from; k < to; k++) {
+                    next[k] = previous[k - 1].add(previous[k]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SegmentTask(previous, next, from, mid),
+                    new SegmentTask(previous, next, mid, to));
+        }
+    }
+}
@@ -9,12 +9,16 @@ public class PascalsTriangle {
     }
 
     // Method to generate and display Pascal's Triangle
+    // Rows are produced by PascalRows.OfLong, which is exact up to row 66
     static void generatePascalsTriangle(int rows) {
-        for (int i = 0; i < rows; i++) { // Iterate over each row
-            int number = 1; // Initialize the first number in the row
-            for (int j = 0; j <= i; j++) { // Iterate over each element in the row
-                System.out.print(number + " "); // Print the current number
-                number = number * (i - j) / (j + 1); // Compute the next number
+        if (rows <= 0) {
+            return; // Nothing to print
+        }
+        PascalRows.OfLong iterator = new PascalRows.OfLong(rows - 1);
+        while (iterator.advance()) { // Iterate over each row
+            long[] row = iterator.row(); // Reused buffer holding the current row
+            for (int j = 0; j <= iterator.rowIndex(); j++) { // Iterate over each element in the row
+                System.out.print(row[j] + " "); // Print the current number
             }
             System.out.println(); // Move to the next row
         }
@@ -0,0 +1,247 @@
+package ProofStrategies;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * ENUMERATING PERMUTATIONS IN CONSTANT MEMORY
+ *
+ * Instead of storing all n! permutations, each permutation is written into
+ * one reused int[] buffer and handed to the caller before the next is built.
+ *
+ * Two orders are offered:
+ * 1. Heap's algorithm: every permutation differs from the previous one by a
+ *    single swap, so a visitor costs O(1) amortised per permutation.
+ * 2. Lexicographic order of positions: the permutation of rank r can be
+ *    built directly, so the rank range [0, n!) can be split into halves for
+ *    parallel streams.
+ *
+ * The buffer passed to a visitor or stream is overwritten by the next
+ * permutation; copy it if it has to be kept.
+ */
+public class PermutationEnumerator {
+    // Largest n whose n! fits in a long
+    public static final int MAX_SPLITTABLE_N = 20;
+
+    // Rank ranges smaller than this are not split further
+    private static final long MIN_SPLIT_SIZE = 1 << 12;
+
+    // Receives each permutation in turn
+    public interface Visitor {
+        /**
+         * @param permutation The current permutation (a reused buffer)
+         * @return false to stop the enumeration early
+         */
+        boolean visit(int[] permutation);
+    }
+
+    public static void main(String[] args) {
+        int[] array = {1, 2, 3};
+
+        // Heap's algorithm with a visitor
+        System.out.println("Heap's order:");
+        forEachPermutation(array, permutation -> {
+            System.out.println(Arrays.toString(permutation));
+            return true;
+        });
+
+        // Parallel scan over all 10! permutations, counting those with no fixed point
+        int n = 10;
+        int[] identity = new int[n];
+        for (int i = 0; i < n; i++) {
+            identity[i] = i;
+        }
+        long start = System.nanoTime();
+        long derangements = stream(identity, true).filter(p -> {
+            for (int i = 0; i < p.length; i++) {
+                if (p[i] == i) {
+                    return false;
+                }
+            }
+            return true;
+        }).count();
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Derangements of " + n + ": " + derangements + " (" + elapsed / 1_000_000 + " ms)");
+    }
+
+    /**
+     * Visits every permutation of the given values using Heap's algorithm.
+     * The input array is not modified.
+     *
+     * @param values The elements to permute
+     * @param visitor Called once per permutation with a reused buffer
+     */
+    public static void forEachPermutation(int[] values, Visitor visitor) {
+        int n = values.length;
+        int[] a = values.clone();
+        int[] c = new int[n]; // c[i] counts the swaps made at level i
+
+        if (!visitor.visit(a)) {
+            return;
+        }
+        int i = 1;
+        while (i < n) {
+            if (c[i] < i) {
+                if ((i & 1) == 0) {
+                    swap(a, 0, i);
+                } else {
+                    swap(a, c[i], i);
+                }
+                if (!visitor.visit(a)) {
+                    return;
+                }
+                c[i]++;
+                i = 1;
+            } else {
+                c[i] = 0;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Returns a splittable view of all permutations of the given values, in
+     * lexicographic order of their positions in the array.
+     *
+     * @param values The elements to permute, at most MAX_SPLITTABLE_N of them
+     * @return A spliterator that reuses one buffer per split
+     */
+    public static Spliterator<int[]> spliterator(int[] values) {
+        if (values.length > MAX_SPLITTABLE_N) {
+            throw new IllegalArgumentException("At most " + MAX_SPLITTABLE_N + " elements are supported.");
+        }
+        return new LexSpliterator(values.clone(), 0, factorial(values.length));
+    }
+
+    /**
+     * Returns a stream of all permutations of the given values.
+     *
+     * @param values The elements to permute, at most MAX_SPLITTABLE_N of them
+     * @param parallel Whether the stream should run on the common ForkJoin pool
+     * @return A stream of reused buffers, one per permutation
+     */
+    public static Stream<int[]> stream(int[] values, boolean parallel) {
+        return StreamSupport.stream(spliterator(values), parallel);
+    }
+
+    /*
+     * Standard next-permutation step: find the longest non-increasing suffix,
+     * swap its predecessor with the smallest larger element of the suffix,
+     * then reverse the suffix.
+     *
+     * @return The first position that changed, or -1 if a was the last permutation
+     */
+    static int nextPermutation(int[] a) {
+        int i = a.length - 2;
+        while (i >= 0 && a[i] >= a[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return -1;
+        }
+        int j = a.length - 1;
+        while (a[j] <= a[i]) {
+            j--;
+        }
+        swap(a, i, j);
+        for (int l = i + 1, r = a.length - 1; l < r; l++, r--) {
+            swap(a, l, r);
+        }
+        return i;
+    }
+
+    // n! as a long, for n <= MAX_SPLITTABLE_N
+    static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
+        }
+        return result;
+    }
+
+    // Helper method to swap two elements in the array
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    // Permutations with lexicographic ranks in [next, end)
+    private static class LexSpliterator implements Spliterator<int[]> {
+        private final int[] values; // The elements being permuted
+        private final int[] index;  // Current permutation of positions
+        private final int[] out;    // out[i] = values[index[i]], handed to consumers
+        private long next;          // Rank of the next permutation to emit
+        private long end;           // One past the last rank of this split
+        private boolean positioned; // Whether index already holds rank next - 1
+
+        LexSpliterator(int[] values, long next, long end) {
+            this.values = values;
+            this.index = new int[values.length];
+            this.out = new int[values.length];
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            if (next >= end) {
+                return false;
+            }
+            step();
+            action.accept(out);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super int[]> action) {
+            while (next < end) {
+                step();
+                action.accept(out);
+            }
+        }
+
+        // Moves index/out to the permutation of rank next, then advances next
+        private void step() {
+            int from;
+            if (!positioned) {
+                PermutationIndex.unrank(next, index);
+                positioned = true;
+                from = 0;
+            } else {
+                from = Math.max(nextPermutation(index), 0);
+            }
+            for (int i = from; i < out.length; i++) { // Only the changed suffix is rewritten
+                out[i] = values[index[i]];
+            }
+            next++;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            long size = end - next;
+            if (size < 2 * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            long mid = next + size / 2;
+            LexSpliterator prefix = new LexSpliterator(values, next, mid);
+            // This spliterator keeps the upper half and must re-position itself
+            next = mid;
+            positioned = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
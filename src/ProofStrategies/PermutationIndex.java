@@ -0,0 +1,224 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/*
+ * RANKING AND UNRANKING PERMUTATIONS
+ *
+ * The permutations of {0, 1, ..., n-1} are numbered 0 to n!-1 in
+ * lexicographic order. The number of a permutation is read off its
+ * Lehmer code:
+ *     L[i] = number of elements after position i that are smaller than p[i]
+ *     rank = L[0]*(n-1)! + L[1]*(n-2)! + ... + L[n-1]*0!
+ *
+ * L[i] is the number of still unused values below p[i]. A Fenwick tree over
+ * the unused values answers that count, and finds the j-th unused value,
+ * in O(log n), so both directions take O(n log n) besides the index arithmetic.
+ *
+ * Ranks fit in a long up to n = 20; BigInteger variants cover larger n.
+ */
+public class PermutationIndex {
+    // Largest n whose n! fits in a long
+    public static final int MAX_LONG_N = 20;
+
+    public static void main(String[] args) {
+        int[] permutation = {2, 0, 3, 1};
+        long rank = rank(permutation);
+        System.out.println("Rank of " + Arrays.toString(permutation) + ": " + rank);
+        System.out.println("Permutation of rank " + rank + ": " + Arrays.toString(unrank(rank, 4)));
+
+        // Jump straight to the middle of the permutations of 30 elements
+        int n = 30;
+        BigInteger middle = BigInteger.ONE;
+        for (int i = 2; i <= n; i++) {
+            middle = middle.multiply(BigInteger.valueOf(i));
+        }
+        middle = middle.shiftRight(1);
+        int[] p = unrank(middle, n);
+        System.out.println("Middle permutation of " + n + ": " + Arrays.toString(p));
+        System.out.println("Round trip: " + rankBig(p).equals(middle));
+    }
+
+    /**
+     * Returns the lexicographic rank of a permutation of {0, ..., n-1}, n <= 20.
+     *
+     * @param permutation A permutation of {0, ..., n-1}
+     * @return Its rank in [0, n!)
+     */
+    public static long rank(int[] permutation) {
+        int n = permutation.length;
+        if (n > MAX_LONG_N) {
+            throw new IllegalArgumentException("Use rankBig for more than " + MAX_LONG_N + " elements.");
+        }
+        int[] lehmer = lehmerCode(permutation);
+        long rank = 0;
+        for (int i = 0; i < n; i++) {
+            rank = rank * (n - i) + lehmer[i]; // Horner's rule in the factorial number system
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the lexicographic rank of a permutation of {0, ..., n-1}.
+     *
+     * @param permutation A permutation of {0, ..., n-1}
+     * @return Its rank in [0, n!)
+     */
+    public static BigInteger rankBig(int[] permutation) {
+        int n = permutation.length;
+        int[] lehmer = lehmerCode(permutation);
+        BigInteger rank = BigInteger.ZERO;
+        long chunk = 0;      // Digits gathered in a long before touching the BigInteger
+        long chunkRadix = 1; // Product of the radices gathered in chunk
+        for (int i = 0; i < n; i++) {
+            long radix = n - i;
+            if (chunkRadix > Long.MAX_VALUE / radix) {
+                rank = rank.multiply(BigInteger.valueOf(chunkRadix)).add(BigInteger.valueOf(chunk));
+                chunk = 0;
+                chunkRadix = 1;
+            }
+            chunk = chunk * radix + lehmer[i];
+            chunkRadix *= radix;
+        }
+        return rank.multiply(BigInteger.valueOf(chunkRadix)).add(BigInteger.valueOf(chunk));
+    }
+
+    /**
+     * Returns the permutation of {0, ..., n-1} with the given rank, n <= 20.
+     */
+    public static int[] unrank(long rank, int n) {
+        int[] permutation = new int[n];
+        unrank(rank, permutation);
+        return permutation;
+    }
+
+    /**
+     * Writes the permutation of {0, ..., n-1} with the given rank into the
+     * buffer, where n is the buffer length (at most 20).
+     */
+    public static void unrank(long rank, int[] permutation) {
+        int n = permutation.length;
+        if (n > MAX_LONG_N) {
+            throw new IllegalArgumentException("Use a BigInteger rank for more than " + MAX_LONG_N + " elements.");
+        }
+        if (rank < 0 || rank >= PermutationEnumerator.factorial(n)) {
+            throw new IllegalArgumentException("rank must be in [0, n!).");
+        }
+        int[] lehmer = new int[n];
+        for (int i = n - 1; i >= 0; i--) { // Peel off factorial-base digits from the least significant end
+            long radix = n - i;
+            lehmer[i] = (int) (rank % radix);
+            rank /= radix;
+        }
+        fromLehmerCode(lehmer, permutation);
+    }
+
+    /**
+     * Returns the permutation of {0, ..., n-1} with the given rank.
+     */
+    public static int[] unrank(BigInteger rank, int n) {
+        if (rank.signum() < 0) {
+            throw new IllegalArgumentException("rank must be non-negative.");
+        }
+        int[] lehmer = new int[n];
+        int i = n - 1;
+        while (i >= 0) {
+            // Divide by as many radices as fit in a long at once
+            long chunkRadix = 1;
+            int j = i;
+            while (j >= 0 && chunkRadix <= Long.MAX_VALUE / (n - j)) {
+                chunkRadix *= n - j;
+                j--;
+            }
+            BigInteger[] qr = rank.divideAndRemainder(BigInteger.valueOf(chunkRadix));
+            long chunk = qr[1].longValue();
+            for (int l = i; l > j; l--) {
+                long radix = n - l;
+                lehmer[l] = (int) (chunk % radix);
+                chunk /= radix;
+            }
+            rank = qr[0];
+            i = j;
+        }
+        if (rank.signum() != 0) {
+            throw new IllegalArgumentException("rank must be in [0, n!).");
+        }
+        int[] permutation = new int[n];
+        fromLehmerCode(lehmer, permutation);
+        return permutation;
+    }
+
+    // L[i] = number of values below p[i] not used by p[0..i-1]
+    private static int[] lehmerCode(int[] permutation) {
+        int n = permutation.length;
+        int[] tree = fullTree(n);
+        int[] lehmer = new int[n];
+        boolean[] seen = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int value = permutation[i];
+            if (value < 0 || value >= n || seen[value]) {
+                throw new IllegalArgumentException("Not a permutation of 0.." + (n - 1) + ".");
+            }
+            seen[value] = true;
+            lehmer[i] = prefixSum(tree, value); // Unused values in [0, value)
+            add(tree, value, -1);               // Mark value as used
+        }
+        return lehmer;
+    }
+
+    // p[i] = the L[i]-th smallest value not used by p[0..i-1]
+    private static void fromLehmerCode(int[] lehmer, int[] permutation) {
+        int n = lehmer.length;
+        int[] tree = fullTree(n);
+        int highBit = Integer.highestOneBit(Math.max(n, 1));
+        for (int i = 0; i < n; i++) {
+            int value = findKth(tree, lehmer[i], highBit);
+            permutation[i] = value;
+            add(tree, value, -1);
+        }
+    }
+
+    /*
+     * Fenwick tree helpers over positions 0..n-1 (stored 1-based).
+     * tree[i] holds the sum of the range (i - lowbit(i), i].
+     */
+
+    // A tree with every position set to 1, built in O(n)
+    private static int[] fullTree(int n) {
+        int[] tree = new int[n + 1];
+        for (int i = 1; i <= n; i++) {
+            tree[i] = i & -i; // Each node covers lowbit(i) ones
+        }
+        return tree;
+    }
+
+    // Adds delta at position
+    private static void add(int[] tree, int position, int delta) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of positions [0, position)
+    private static int prefixSum(int[] tree, int position) {
+        int sum = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Smallest position whose prefix sum (inclusive) exceeds k, by binary descent
+    private static int findKth(int[] tree, int k, int highBit) {
+        int position = 0;
+        for (int step = highBit; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return position; // The answer is 1-based position + 1, i.e. 0-based position
+    }
+}
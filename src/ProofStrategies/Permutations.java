@@ -1,6 +1,7 @@
 package ProofStrategies;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Permutations {
@@ -14,9 +15,17 @@ public class Permutations {
         for (List<Integer> perm : permutations) {
             System.out.println(perm);
         }
+
+        // The same permutations, visited one at a time without storing them
+        System.out.println("Visited in place:");
+        PermutationEnumerator.forEachPermutation(array, perm -> {
+            System.out.println(Arrays.toString(perm));
+            return true; // Keep going
+        });
     }
 
     // Method to generate all permutations using backtracking
+    // Keeps all n! permutations in memory - use PermutationEnumerator for larger arrays
     static List<List<Integer>> generatePermutations(int[] array, int start) {
         List<List<Integer>> results = new ArrayList<>(); // Store the result permutations
 
@@ -0,0 +1,452 @@
+package ProofStrategies;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/*
+ * EXPANDING POWERS OF POLYNOMIALS
+ *
+ * The Binomial Theorem gives the coefficients of (a + b x)^n, and more
+ * generally the Multinomial Theorem gives those of
+ *     (c0 + c1 x + ... + c(k-1) x^(k-1))^n
+ * which, with x_i = c_i x^i, collects the terms of (x1 + ... + xk)^n by
+ * total degree. Here the whole coefficient array is computed by repeated
+ * squaring, with every product done as a convolution.
+ *
+ * Convolutions use the number-theoretic transform (NTT), an FFT over the
+ * integers modulo a prime p = c * 2^k + 1, which is exact. Results are
+ * assembled from several such primes with the Chinese Remainder Theorem:
+ * - powerMod: any modulus m < 2^31. Three primes recover each convolution
+ *   coefficient exactly before it is reduced mod m, so n can be in the
+ *   hundreds of thousands.
+ * - power: exact BigInteger coefficients. The whole power is computed
+ *   modulo as many primes as the coefficient size needs, independently and
+ *   in parallel, and combined once at the end. This is limited by the number
+ *   of suitable primes below 2^31: for results of up to 2^L coefficients
+ *   their product has about 6 * 10^9 / 2^L bits (roughly 90,000 bits for
+ *   L = 16, 6,000 for L = 20), and each coefficient must fit in that.
+ *   Reconstruction costs O(t^2) per coefficient for t primes, so this
+ *   suits general polynomials with moderate n.
+ * Exact binomial expansions do not need transforms at all: binomialExpansion
+ * walks from each term to the next with one exact multiplication and
+ * division, which stays practical for n in the hundreds of thousands.
+ */
+public class PolynomialExpansion {
+    // All primes used are below this bound, so products of residues fit in a long
+    private static final long PRIME_LIMIT = 1L << 31;
+
+    // Primes modulo which the NTT can be computed for lengths up to 2^logLength
+    private static final class NttPrime {
+        final long p;     // The prime
+        final long root;  // A primitive root modulo p
+
+        NttPrime(long p, long root) {
+            this.p = p;
+            this.root = root;
+        }
+    }
+
+    public static void main(String[] args) {
+        // (1 + 2x)^5 exactly
+        System.out.println("(1 + 2x)^5: " + Arrays.toString(binomialExpansion(1, 2, 5)));
+
+        // (1 + x + x^2)^4: trinomial coefficients
+        System.out.println("(1 + x + x^2)^4: " + Arrays.toString(power(new long[]{1, 1, 1}, 4)));
+
+        // A large binomial expansion modulo 10^9 + 7
+        int n = 200_000;
+        long start = System.nanoTime();
+        long[] coefficients = binomialExpansionMod(3, 5, n, 1_000_000_007L);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("(3 + 5x)^" + n + " mod p: " + coefficients.length + " coefficients, middle = "
+                + coefficients[n / 2] + " (" + elapsed / 1_000_000 + " ms)");
+    }
+
+    /**
+     * Exact coefficients of (a + b x)^n; entry k is C(n, k) a^(n-k) b^k.
+     * Each term follows from the previous one by
+     *     T(k + 1) = T(k) * (n - k) * b / ((k + 1) * a),
+     * where the division is exact, so every step multiplies and divides a
+     * BigInteger by a number that fits in a word or two.
+     */
+    public static BigInteger[] binomialExpansion(long a, long b, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        BigInteger[] terms = new BigInteger[n + 1];
+        Arrays.fill(terms, BigInteger.ZERO);
+        if (a == 0 || b == 0) {
+            // Only one term survives: a^n at k = 0 or b^n at k = n (0^0 = 1)
+            terms[a == 0 ? n : 0] = BigInteger.valueOf(a == 0 ? b : a).pow(n);
+            return terms;
+        }
+
+        terms[0] = BigInteger.valueOf(a).pow(n);
+        for (int k = 0; k < n; k++) {
+            // (n - k) b T(k) = (k + 1) a T(k + 1), so the quotient is exact
+            terms[k + 1] = terms[k].multiply(product(n - k, b)).divide(product(k + 1, a));
+        }
+        return terms;
+    }
+
+    // i * c as a BigInteger, without a second multiplication when it fits in a long
+    private static BigInteger product(int i, long c) {
+        long high = Math.multiplyHigh(i, c);
+        long low = i * c;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return BigInteger.valueOf(low);
+        }
+        return BigInteger.valueOf(i).multiply(BigInteger.valueOf(c));
+    }
+
+    /**
+     * Coefficients of (a + b x)^n modulo m.
+     */
+    public static long[] binomialExpansionMod(long a, long b, int n, long modulus) {
+        long[] terms = powerMod(new long[]{a, b}, n, modulus);
+        return terms.length < n + 1 ? Arrays.copyOf(terms, n + 1) : terms;
+    }
+
+    /**
+     * Coefficients of poly(x)^n modulo m, where poly[i] is the coefficient of x^i.
+     *
+     * @param poly The polynomial to raise to a power
+     * @param n A non-negative exponent
+     * @param modulus A modulus 2 <= m < 2^31
+     * @return The coefficients of poly^n reduced into [0, m)
+     */
+    public static long[] powerMod(long[] poly, int n, long modulus) {
+        if (modulus < 2 || modulus >= PRIME_LIMIT) {
+            throw new IllegalArgumentException("modulus must be between 2 and 2^31 - 1.");
+        }
+        long[] base = reduce(trim(poly), modulus);
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        if (base.length == 0) {
+            return n == 0 ? new long[]{1 % modulus} : new long[]{0};
+        }
+
+        // No convolution is longer than the result, so transforms of that length suffice
+        int logLength = log2Ceil(resultLength(base.length, n));
+        NttPrime[] primes = nttPrimes(logLength, 3);
+
+        // Repeated squaring; each product is recovered from three primes, then reduced mod m
+        long[] result = {1 % modulus};
+        int e = n;
+        while (e > 0) {
+            if ((e & 1) == 1) {
+                result = multiplyMod(result, base, modulus, primes);
+            }
+            e >>= 1;
+            if (e > 0) {
+                base = multiplyMod(base, base, modulus, primes);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Exact coefficients of poly(x)^n, where poly[i] is the coefficient of x^i.
+     *
+     * @throws ArithmeticException if the coefficients need more primes than are available
+     */
+    public static BigInteger[] power(long[] poly, int n) {
+        long[] base = trim(poly);
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        if (base.length == 0) {
+            return new BigInteger[]{n == 0 ? BigInteger.ONE : BigInteger.ZERO};
+        }
+
+        // |coefficient of poly^n| <= (sum |c_i|)^n, plus one bit for the sign
+        double l1 = 0;
+        for (long c : base) {
+            l1 += Math.abs((double) c);
+        }
+        double neededBits = n * (Math.log(Math.max(l1, 1)) / Math.log(2)) + 2;
+
+        int length = resultLength(base.length, n);
+        int logLength = log2Ceil(length);
+        NttPrime[] primes = nttPrimesCovering(logLength, neededBits);
+
+        // The power modulo each prime, computed independently
+        long[][] residues = new long[primes.length][];
+        IntStream.range(0, primes.length).parallel()
+                .forEach(i -> residues[i] = powerModPrime(base, n, primes[i]));
+
+        return reconstruct(residues, primes, length);
+    }
+
+    // Number of coefficients of poly^n when poly has the given number of coefficients
+    private static int resultLength(int polyLength, int n) {
+        long length = (long) (polyLength - 1) * n + 1;
+        if (length > (1 << 29)) {
+            throw new IllegalArgumentException("Result would have too many coefficients: " + length);
+        }
+        return (int) length;
+    }
+
+    // poly^n modulo an NTT prime by repeated squaring
+    private static long[] powerModPrime(long[] poly, int n, NttPrime prime) {
+        long[] base = reduce(poly, prime.p);
+        long[] result = {1};
+        int e = n;
+        while (e > 0) {
+            if ((e & 1) == 1) {
+                result = convolution(result, base, prime);
+            }
+            e >>= 1;
+            if (e > 0) {
+                base = convolution(base, base, prime);
+            }
+        }
+        return result;
+    }
+
+    // a * b modulo m, with every coefficient recovered exactly by CRT over three primes
+    private static long[] multiplyMod(long[] a, long[] b, long m, NttPrime[] primes) {
+        long[] r0 = convolution(a, b, primes[0]);
+        long[] r1 = convolution(a, b, primes[1]);
+        long[] r2 = convolution(a, b, primes[2]);
+
+        long p0 = primes[0].p;
+        long p1 = primes[1].p;
+        long p2 = primes[2].p;
+        long inv01 = modInverse(p0 % p1, p1);
+        long inv012 = modInverse(p0 % p2 * (p1 % p2) % p2, p2);
+        long p01m = p0 % m * (p1 % m) % m;
+
+        long[] result = new long[r0.length];
+        for (int i = 0; i < result.length; i++) {
+            // Garner's algorithm: x = t0 + t1 p0 + t2 p0 p1 with 0 <= ti < pi
+            long t0 = r0[i];
+            long t1 = Math.floorMod(r1[i] - t0, p1) * inv01 % p1;
+            long t2 = Math.floorMod(r2[i] - t0 - t1 % p2 * (p0 % p2) % p2, p2) * inv012 % p2;
+            result[i] = (t0 % m + t1 % m * (p0 % m) % m + t2 % m * p01m % m) % m;
+        }
+        return result;
+    }
+
+    // Combines residues modulo several primes into signed BigInteger coefficients
+    private static BigInteger[] reconstruct(long[][] residues, NttPrime[] primes, int length) {
+        int t = primes.length;
+
+        // inverse[j][i] = p_j^(-1) mod p_i for j < i
+        long[][] inverse = new long[t][t];
+        BigInteger product = BigInteger.ONE;
+        for (int i = 0; i < t; i++) {
+            for (int j = 0; j < i; j++) {
+                inverse[j][i] = modInverse(primes[j].p % primes[i].p, primes[i].p);
+            }
+            product = product.multiply(BigInteger.valueOf(primes[i].p));
+        }
+        BigInteger modulus = product;
+        BigInteger half = modulus.shiftRight(1);
+
+        BigInteger[] result = new BigInteger[length];
+        IntStream.range(0, length).parallel().forEach(k -> {
+            // Mixed-radix digits: x = v0 + v1 p0 + v2 p0 p1 + ...
+            long[] v = new long[t];
+            for (int i = 0; i < t; i++) {
+                long p = primes[i].p;
+                long x = residues[i][k];
+                for (int j = 0; j < i; j++) {
+                    x = Math.floorMod(x - v[j], p) * inverse[j][i] % p;
+                }
+                v[i] = x;
+            }
+            BigInteger value = BigInteger.valueOf(v[t - 1]);
+            for (int i = t - 2; i >= 0; i--) {
+                value = value.multiply(BigInteger.valueOf(primes[i].p)).add(BigInteger.valueOf(v[i]));
+            }
+            result[k] = value.compareTo(half) > 0 ? value.subtract(modulus) : value; // Restore negative values
+        });
+        return result;
+    }
+
+    // Cyclic-free product of a and b modulo an NTT prime
+    private static long[] convolution(long[] a, long[] b, NttPrime prime) {
+        int resultLength = a.length + b.length - 1;
+        long p = prime.p;
+        if (Math.min(a.length, b.length) <= 32) {
+            // Schoolbook multiplication is faster for short factors
+            long[] result = new long[resultLength];
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] == 0) {
+                    continue;
+                }
+                for (int j = 0; j < b.length; j++) {
+                    result[i + j] = (result[i + j] + a[i] * b[j]) % p;
+                }
+            }
+            return result;
+        }
+
+        int length = Integer.highestOneBit(resultLength - 1) << 1;
+        long[] fa = Arrays.copyOf(a, length);
+        ntt(fa, false, prime);
+        if (a == b) {
+            for (int i = 0; i < length; i++) {
+                fa[i] = fa[i] * fa[i] % p; // Squaring needs only one forward transform
+            }
+        } else {
+            long[] fb = Arrays.copyOf(b, length);
+            ntt(fb, false, prime);
+            for (int i = 0; i < length; i++) {
+                fa[i] = fa[i] * fb[i] % p;
+            }
+        }
+        ntt(fa, true, prime);
+        return Arrays.copyOf(fa, resultLength);
+    }
+
+    // In-place iterative radix-2 NTT; the inverse includes the 1/length scaling
+    private static void ntt(long[] a, boolean invert, NttPrime prime) {
+        int n = a.length;
+        long p = prime.p;
+
+        // Bit-reversal permutation
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                long temp = a[i];
+                a[i] = a[j];
+                a[j] = temp;
+            }
+        }
+
+        long[] twiddles = new long[n >> 1];
+        for (int length = 2; length <= n; length <<= 1) {
+            int half = length >> 1;
+            long w = BinomialService.powMod(prime.root, (p - 1) / length, p);
+            if (invert) {
+                w = modInverse(w, p);
+            }
+            twiddles[0] = 1;
+            for (int j = 1; j < half; j++) {
+                twiddles[j] = twiddles[j - 1] * w % p;
+            }
+            for (int i = 0; i < n; i += length) {
+                for (int j = 0; j < half; j++) {
+                    long u = a[i + j];
+                    long v = a[i + j + half] * twiddles[j] % p;
+                    long sum = u + v;
+                    long diff = u - v;
+                    a[i + j] = sum >= p ? sum - p : sum;
+                    a[i + j + half] = diff < 0 ? diff + p : diff;
+                }
+            }
+        }
+
+        if (invert) {
+            long inverseLength = modInverse(n, p);
+            for (int i = 0; i < n; i++) {
+                a[i] = a[i] * inverseLength % p;
+            }
+        }
+    }
+
+    // The 'count' largest primes p < 2^31 with p = 1 (mod 2^logLength)
+    private static NttPrime[] nttPrimes(int logLength, int count) {
+        NttPrime[] primes = new NttPrime[count];
+        int found = 0;
+        long step = 1L << logLength;
+        for (long c = (PRIME_LIMIT - 2) / step; c > 0 && found < count; c--) {
+            long p = c * step + 1;
+            if (BigInteger.valueOf(p).isProbablePrime(40)) {
+                primes[found++] = new NttPrime(p, primitiveRoot(p));
+            }
+        }
+        if (found < count) {
+            throw new ArithmeticException("Not enough NTT primes for transforms of length 2^" + logLength + ".");
+        }
+        return primes;
+    }
+
+    // Enough NTT primes for their product to exceed 2^bits
+    private static NttPrime[] nttPrimesCovering(int logLength, double bits) {
+        NttPrime[] primes = new NttPrime[16];
+        int found = 0;
+        double covered = 0;
+        long step = 1L << logLength;
+        for (long c = (PRIME_LIMIT - 2) / step; c > 0 && covered <= bits; c--) {
+            long p = c * step + 1;
+            if (BigInteger.valueOf(p).isProbablePrime(40)) {
+                if (found == primes.length) {
+                    primes = Arrays.copyOf(primes, found * 2);
+                }
+                primes[found++] = new NttPrime(p, primitiveRoot(p));
+                covered += Math.log(p) / Math.log(2);
+            }
+        }
+        if (covered <= bits) {
+            throw new ArithmeticException("Coefficients need about " + (long) bits
+                    + " bits, more than the available NTT primes cover; use powerMod instead.");
+        }
+        return Arrays.copyOf(primes, found);
+    }
+
+    // Smallest g whose powers generate all non-zero residues mod the prime p
+    private static long primitiveRoot(long p) {
+        // Distinct prime factors of p - 1
+        long[] factors = new long[64];
+        int count = 0;
+        long m = p - 1;
+        for (long q = 2; q * q <= m; q++) {
+            if (m % q == 0) {
+                factors[count++] = q;
+                while (m % q == 0) {
+                    m /= q;
+                }
+            }
+        }
+        if (m > 1) {
+            factors[count++] = m;
+        }
+
+        for (long g = 2; ; g++) {
+            boolean generator = true;
+            for (int i = 0; i < count && generator; i++) {
+                generator = BinomialService.powMod(g, (p - 1) / factors[i], p) != 1;
+            }
+            if (generator) {
+                return g;
+            }
+        }
+    }
+
+    // Inverse of a modulo the prime p, by Fermat's little theorem
+    private static long modInverse(long a, long p) {
+        return BinomialService.powMod(a, p - 2, p);
+    }
+
+    // Coefficients reduced into [0, m)
+    private static long[] reduce(long[] poly, long m) {
+        long[] reduced = new long[poly.length];
+        for (int i = 0; i < poly.length; i++) {
+            reduced[i] = Math.floorMod(poly[i], m);
+        }
+        return reduced;
+    }
+
+    // Drops trailing zero coefficients
+    private static long[] trim(long[] poly) {
+        int length = poly.length;
+        while (length > 0 && poly[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(poly, length);
+    }
+
+    // Smallest k with 2^k >= n
+    private static int log2Ceil(long n) {
+        return n <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(n - 1);
+    }
+}
@@ -0,0 +1,227 @@
+package ProofStrategies;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * DIVIDE-AND-CONQUER RANGE SUMS
+ *
+ * The sum of array[from..to) is split in half until the pieces are small,
+ * the halves are summed on separate ForkJoin workers and the partial sums
+ * are added together. The recursion depth is O(log n) instead of O(n).
+ *
+ * - int[] and long[] are accumulated in a long (int sums cannot overflow
+ *   for fewer than 2^32 elements).
+ * - double[] uses Kahan-Babuska (Neumaier) compensated summation inside each
+ *   piece and carries the compensation term when pieces are combined, so the
+ *   rounding error does not grow with n.
+ *
+ * Indices here are 0-based and half-open: [from, to).
+ */
+public class RangeSum {
+    // Ranges shorter than this are summed sequentially
+    private static volatile int threshold = 1 << 15;
+
+    public static void main(String[] args) {
+        int[] array = new int[50_000_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 1000;
+        }
+
+        long start = System.nanoTime();
+        long total = sum(array, 0, array.length);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Sum of " + array.length + " ints: " + total + " (" + elapsed / 1_000_000 + " ms)");
+
+        // Compensated summation keeps small terms that naive addition loses
+        double[] values = new double[10_000_001];
+        values[0] = 1e16;
+        for (int i = 1; i < values.length; i++) {
+            values[i] = 1.0;
+        }
+        System.out.println("Compensated double sum: " + sum(values, 0, values.length)); // 1.000000001E16
+    }
+
+    // Sets the range length below which sums are computed sequentially
+    public static void setThreshold(int newThreshold) {
+        if (newThreshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive.");
+        }
+        threshold = newThreshold;
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sums array[from..to) in a long.
+     */
+    public static long sum(int[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (to - from <= threshold) {
+            return sequentialSum(array, from, to);
+        }
+        return ForkJoinPool.commonPool().invoke(new IntSumTask(array, from, to, threshold));
+    }
+
+    /**
+     * Sums array[from..to) in a long, wrapping on overflow like ordinary long addition.
+     */
+    public static long sum(long[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (to - from <= threshold) {
+            return sequentialSum(array, from, to);
+        }
+        return ForkJoinPool.commonPool().invoke(new LongSumTask(array, from, to, threshold));
+    }
+
+    /**
+     * Sums array[from..to) with compensated summation.
+     */
+    public static double sum(double[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (to - from <= threshold) {
+            double[] partial = new double[2];
+            sequentialSum(array, from, to, partial);
+            return partial[0] + partial[1];
+        }
+        double[] partial = ForkJoinPool.commonPool().invoke(new DoubleSumTask(array, from, to, threshold));
+        return partial[0] + partial[1];
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") for length " + length);
+        }
+    }
+
+    static long sequentialSum(int[] array, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    static long sequentialSum(long[] array, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    // Neumaier summation: partial[0] is the running sum, partial[1] the lost low-order part
+    private static void sequentialSum(double[] array, int from, int to, double[] partial) {
+        double total = 0;
+        double compensation = 0;
+        for (int i = from; i < to; i++) {
+            double x = array[i];
+            double t = total + x;
+            if (Math.abs(total) >= Math.abs(x)) {
+                compensation += (total - t) + x; // Low-order digits of x were lost
+            } else {
+                compensation += (x - t) + total; // Low-order digits of total were lost
+            }
+            total = t;
+        }
+        partial[0] = total;
+        partial[1] = compensation;
+    }
+
+    // Fork/join task summing an int range
+    @SuppressWarnings("serial")
+    private static class IntSumTask extends RecursiveTask<Long> {
+        private final int[] array;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        IntSumTask(int[] array, int from, int to, int threshold) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return sequentialSum(array, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            IntSumTask left = new IntSumTask(array, from, mid, threshold);
+            left.fork();
+            long right = new IntSumTask(array, mid, to, threshold).compute();
+            return left.join() + right;
+        }
+    }
+
+    // Fork/join task summing a long range
+    @SuppressWarnings("serial")
+    private static class LongSumTask extends RecursiveTask<Long> {
+        private final long[] array;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        LongSumTask(long[] array, int from, int to, int threshold) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return sequentialSum(array, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            LongSumTask left = new LongSumTask(array, from, mid, threshold);
+            left.fork();
+            long right = new LongSumTask(array, mid, to, threshold).compute();
+            return left.join() + right;
+        }
+    }
+
+    // Fork/join task returning {sum, compensation} for a double range
+    @SuppressWarnings("serial")
+    private static class DoubleSumTask extends RecursiveTask<double[]> {
+        private final double[] array;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        DoubleSumTask(double[] array, int from, int to, int threshold) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected double[] compute() {
+            double[] partial = new double[2];
+            if (to - from <= threshold) {
+                sequentialSum(array, from, to, partial);
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            DoubleSumTask left = new DoubleSumTask(array, from, mid, threshold);
+            left.fork();
+            double[] right = new DoubleSumTask(array, mid, to, threshold).compute();
+            double[] l = left.join();
+
+            // Combine the two running sums with one more compensated addition
+            double a = l[0];
+            double b = right[0];
+            double t = a + b;
+            double error = Math.abs(a) >= Math.abs(b) ? (a - t) + b : (b - t) + a;
+            partial[0] = t;
+            partial[1] = l[1] + right[1] + error;
+            return partial;
+        }
+    }
+}
@@ -10,15 +10,21 @@ public class RecursiveSummation {
 
         // Calculate the sum recursively and print the result
         System.out.println("Recursive sum from index " + m + " to " + n + ": " + sumRecursive(array, m, n));
+
+        // The parallel engine uses 0-based, half-open ranges
+        System.out.println("Parallel sum from index " + m + " to " + n + ": " + RangeSum.sum(array, m - 1, n));
     }
 
     // Method to compute summation using recursion
-    static int sumRecursive(int[] array, int start, int end) {
+    // The range is halved at each step, so the recursion depth is log2(n) rather than n.
+    // For large arrays RangeSum.sum does the same split across ForkJoin workers.
+    static long sumRecursive(int[] array, int start, int end) {
         // Base case: If start equals end, return the element at that position
         if (start == end) {
             return array[start - 1]; // Convert 1-based index to 0-based index
         }
-        // Recursive step: Add the current element to the sum of the rest of the range
-        return array[start - 1] + sumRecursive(array, start + 1, end);
+        // Recursive step: Add the sums of the two halves of the range
+        int mid = (start + end) >>> 1;
+        return sumRecursive(array, start, mid) + sumRecursive(array, mid + 1, end);
     }
 }
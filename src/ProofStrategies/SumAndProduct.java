@@ -14,20 +14,14 @@ public class SumAndProduct {
     }
 
     // Method to compute the sum of elements in a given range
-    static int sum(int[] array, int start, int end) {
-        int result = 0; // Initialize the sum to 0
-        for (int i = start - 1; i < end; i++) { // Loop through the range (convert 1-based to 0-based index)
-            result += array[i]; // Add each element to the result
-        }
-        return result; // Return the total sum
+    // Accumulates in a long, using SIMD kernels when the Vector API is available
+    static long sum(int[] array, int start, int end) {
+        return SumAndProductKernels.sum(array, start - 1, end); // Convert 1-based inclusive range to 0-based half-open
     }
 
     // Method to compute the product of elements in a given range
+    // Wraps around on overflow exactly like repeated int multiplication
     static int product(int[] array, int start, int end) {
-        int result = 1; // Initialize the product to 1
-        for (int i = start - 1; i < end; i++) { // Loop through the range (convert 1-based to 0-based index)
-            result *= array[i]; // Multiply each element to the result
-        }
-        return result; // Return the total product
+        return SumAndProductKernels.product(array, start - 1, end); // Convert 1-based inclusive range to 0-based half-open
     }
 }
@@ -0,0 +1,95 @@
+package ProofStrategies;
+
+import java.util.Random;
+
+/*
+ * THROUGHPUT OF THE SCALAR AND SIMD SUM/PRODUCT KERNELS
+ *
+ * A small timing harness: each kernel is warmed up so the JIT compiles it,
+ * then timed over several repetitions and the best run is reported as
+ * elements per nanosecond.
+ *
+ * Run with the Vector API enabled, and a large enough heap for 10^8 elements:
+ *     java --add-modules jdk.incubator.vector -Xmx2g ProofStrategies.SumAndProductBenchmark 1000000 10000000 100000000
+ * Without arguments, sizes 10^6 and 10^7 are measured.
+ */
+public class SumAndProductBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Keeps results alive so the JIT cannot drop the measured loops
+    private static volatile double sink;
+
+    // A kernel under test, returning its result as a double
+    private interface Kernel {
+        double run();
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1_000_000, 10_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        System.out.println("Vector API available: " + VectorSupport.AVAILABLE);
+
+        Random random = new Random(42);
+        for (int n : sizes) {
+            System.out.println("n = " + n);
+
+            int[] ints = new int[n];
+            for (int i = 0; i < n; i++) {
+                ints[i] = random.nextInt();
+            }
+            compare("int sum", n,
+                    () -> SumAndProductKernels.scalarSum(ints, 0, n),
+                    () -> SumAndProductKernels.sum(ints, 0, n));
+            compare("int product", n,
+                    () -> SumAndProductKernels.scalarProduct(ints, 0, n),
+                    () -> SumAndProductKernels.product(ints, 0, n));
+
+            long[] longs = new long[n];
+            for (int i = 0; i < n; i++) {
+                longs[i] = random.nextLong();
+            }
+            compare("long sum", n,
+                    () -> SumAndProductKernels.scalarSum(longs, 0, n),
+                    () -> SumAndProductKernels.sum(longs, 0, n));
+            compare("long product", n,
+                    () -> SumAndProductKernels.scalarProduct(longs, 0, n),
+                    () -> SumAndProductKernels.product(longs, 0, n));
+
+            double[] doubles = new double[n];
+            for (int i = 0; i < n; i++) {
+                doubles[i] = 1.0 + random.nextDouble() * 1e-9; // Products stay finite
+            }
+            compare("double sum", n,
+                    () -> SumAndProductKernels.scalarSum(doubles, 0, n),
+                    () -> SumAndProductKernels.sum(doubles, 0, n));
+            compare("double product", n,
+                    () -> SumAndProductKernels.scalarProduct(doubles, 0, n),
+                    () -> SumAndProductKernels.product(doubles, 0, n));
+        }
+    }
+
+    // Prints the throughput of the scalar and dispatched kernels and their ratio
+    private static void compare(String name, int n, Kernel scalar, Kernel dispatched) {
+        double scalarRate = bestRate(n, scalar);
+        double dispatchedRate = bestRate(n, dispatched);
+        System.out.printf("  %-15s scalar %6.2f elem/ns, kernel %6.2f elem/ns, speed-up %.2fx%n",
+                name, scalarRate, dispatchedRate, dispatchedRate / scalarRate);
+    }
+
+    // Best elements-per-nanosecond over the measured rounds
+    private static double bestRate(int n, Kernel kernel) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = kernel.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink = kernel.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) n / Math.max(best, 1);
+    }
+}
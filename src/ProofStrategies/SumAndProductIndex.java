@@ -0,0 +1,214 @@
+package ProofStrategies;
+
+/*
+ * RANGE SUMS AND PRODUCTS WITH UPDATES
+ *
+ * For many queries against an array that changes slowly, the array is
+ * indexed once and every query or point update costs O(log n):
+ *
+ * - Sums: a Fenwick (binary indexed) tree of long prefix sums.
+ * - Products modulo p: a segment tree, where each node holds the product of
+ *   its two children mod p.
+ * - Products of any size: a Fenwick tree of log|x| values, together with
+ *   counts of zeros and negative values, gives ln|product| and its sign.
+ *
+ * Like SumAndProduct, positions are 1-based and ranges include both ends.
+ */
+public class SumAndProductIndex {
+    private final int n;
+    private final long modulus;
+    private final long[] values;      // Current values, 0-based
+
+    private final long[] sumTree;     // Fenwick tree of values (1-based)
+    private final double[] logTree;   // Fenwick tree of ln|value| over non-zero values
+    private final int[] zeroTree;     // Fenwick tree counting zeros
+    private final int[] negativeTree; // Fenwick tree counting negative values
+    private final long[] productTree; // Segment tree of products mod p; leaves at n..2n-1
+
+    /**
+     * Indexes a copy of the array.
+     *
+     * @param array The values to index
+     * @param modulus The modulus p for modular products, 2 <= p < 2^31
+     */
+    public SumAndProductIndex(int[] array, long modulus) {
+        if (modulus < 2 || modulus > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("modulus must be between 2 and 2^31 - 1.");
+        }
+        this.n = array.length;
+        this.modulus = modulus;
+        this.values = new long[n];
+        this.sumTree = new long[n + 1];
+        this.logTree = new double[n + 1];
+        this.zeroTree = new int[n + 1];
+        this.negativeTree = new int[n + 1];
+        this.productTree = new long[2 * n];
+
+        // Fill the leaves, then build each tree bottom-up in O(n)
+        for (int i = 0; i < n; i++) {
+            long v = array[i];
+            values[i] = v;
+            sumTree[i + 1] = v;
+            logTree[i + 1] = v == 0 ? 0 : Math.log(Math.abs((double) v));
+            zeroTree[i + 1] = v == 0 ? 1 : 0;
+            negativeTree[i + 1] = v < 0 ? 1 : 0;
+            productTree[n + i] = Math.floorMod(v, modulus);
+        }
+        for (int i = 1; i <= n; i++) {
+            int parent = i + (i & -i);
+            if (parent <= n) {
+                sumTree[parent] += sumTree[i];
+                logTree[parent] += logTree[i];
+                zeroTree[parent] += zeroTree[i];
+                negativeTree[parent] += negativeTree[i];
+            }
+        }
+        for (int i = n - 1; i > 0; i--) {
+            productTree[i] = productTree[2 * i] * productTree[2 * i + 1] % modulus;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] array = {1, 2, 3, 4, 5};
+        SumAndProductIndex index = new SumAndProductIndex(array, 1_000_000_007L);
+
+        System.out.println("Sum from index 1 to 5: " + index.sum(1, 5));
+        System.out.println("Product from index 1 to 5 mod p: " + index.productMod(1, 5));
+
+        // Change the third element and query again
+        index.set(3, -30);
+        System.out.println("After setting a[3] = -30:");
+        System.out.println("Sum from index 2 to 4: " + index.sum(2, 4));
+        System.out.println("Product from index 2 to 4 mod p: " + index.productMod(2, 4));
+        System.out.println("Product from index 2 to 4: " + index.productSign(2, 4) + " * e^" + index.logAbsProduct(2, 4));
+    }
+
+    // Number of indexed values
+    public int size() {
+        return n;
+    }
+
+    // The value at a 1-based position
+    public long get(int position) {
+        checkPosition(position);
+        return values[position - 1];
+    }
+
+    /**
+     * Replaces the value at a 1-based position, updating every index in O(log n).
+     */
+    public void set(int position, int value) {
+        checkPosition(position);
+        int i = position - 1;
+        long old = values[i];
+        long v = value;
+        values[i] = v;
+
+        double oldLog = old == 0 ? 0 : Math.log(Math.abs((double) old));
+        double newLog = v == 0 ? 0 : Math.log(Math.abs((double) v));
+        int zeroDelta = (v == 0 ? 1 : 0) - (old == 0 ? 1 : 0);
+        int negativeDelta = (v < 0 ? 1 : 0) - (old < 0 ? 1 : 0);
+        for (int j = position; j <= n; j += j & -j) {
+            sumTree[j] += v - old;
+            logTree[j] += newLog - oldLog;
+            zeroTree[j] += zeroDelta;
+            negativeTree[j] += negativeDelta;
+        }
+
+        int node = n + i;
+        productTree[node] = Math.floorMod(v, modulus);
+        for (node >>= 1; node > 0; node >>= 1) {
+            productTree[node] = productTree[2 * node] * productTree[2 * node + 1] % modulus;
+        }
+    }
+
+    /**
+     * Sum of the values from start to end (1-based, inclusive).
+     */
+    public long sum(int start, int end) {
+        checkRange(start, end);
+        return prefix(sumTree, end) - prefix(sumTree, start - 1);
+    }
+
+    /**
+     * Product of the values from start to end (1-based, inclusive), reduced mod p
+     * into [0, p).
+     */
+    public long productMod(int start, int end) {
+        checkRange(start, end);
+        long left = 1 % modulus;
+        long right = 1 % modulus;
+        // Bottom-up segment tree walk over the half-open leaf range [l, r)
+        for (int l = start - 1 + n, r = end + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                left = left * productTree[l++] % modulus;
+            }
+            if ((r & 1) == 1) {
+                right = productTree[--r] * right % modulus;
+            }
+        }
+        return left * right % modulus;
+    }
+
+    /**
+     * ln|product| of the values from start to end (1-based, inclusive), or
+     * negative infinity if the range contains a zero.
+     */
+    public double logAbsProduct(int start, int end) {
+        checkRange(start, end);
+        if (prefix(zeroTree, end) - prefix(zeroTree, start - 1) > 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return prefix(logTree, end) - prefix(logTree, start - 1);
+    }
+
+    /**
+     * Sign of the product of the values from start to end (1-based, inclusive):
+     * -1, 0 or 1.
+     */
+    public int productSign(int start, int end) {
+        checkRange(start, end);
+        if (prefix(zeroTree, end) - prefix(zeroTree, start - 1) > 0) {
+            return 0;
+        }
+        int negatives = prefix(negativeTree, end) - prefix(negativeTree, start - 1);
+        return (negatives & 1) == 0 ? 1 : -1;
+    }
+
+    private void checkPosition(int position) {
+        if (position < 1 || position > n) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside 1.." + n);
+        }
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 1 || end > n || start > end + 1) {
+            throw new IndexOutOfBoundsException("Invalid range " + start + ".." + end + " for size " + n);
+        }
+    }
+
+    // Fenwick prefix sums over positions 1..position
+    private static long prefix(long[] tree, int position) {
+        long total = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    private static double prefix(double[] tree, int position) {
+        double total = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    private static int prefix(int[] tree, int position) {
+        int total = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,132 @@
+package ProofStrategies;
+
+/*
+ * SUM AND PRODUCT KERNELS WITH A SCALAR FALLBACK
+ *
+ * When the JVM is started with --add-modules jdk.incubator.vector, sums and
+ * products over large ranges are computed by the SIMD kernels in
+ * VectorKernels. Otherwise, or for short ranges, the plain loops below are
+ * used. Both paths give the same results for int and long; double results
+ * can differ in the last bits because the lanes are added in another order.
+ *
+ * Ranges are 0-based and half-open: [from, to).
+ */
+public class SumAndProductKernels {
+    // Ranges shorter than this are not worth setting up vectors for
+    private static final int VECTOR_THRESHOLD = 64;
+
+    public static void main(String[] args) {
+        int[] array = {1, 2, 3, 4, 5};
+        System.out.println("Vector API available: " + VectorSupport.AVAILABLE);
+        System.out.println("Sum: " + sum(array, 0, array.length));
+        System.out.println("Product: " + product(array, 0, array.length));
+    }
+
+    public static long sum(int[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.sum(array, from, to);
+        }
+        return scalarSum(array, from, to);
+    }
+
+    public static long sum(long[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.sum(array, from, to);
+        }
+        return scalarSum(array, from, to);
+    }
+
+    public static double sum(double[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.sum(array, from, to);
+        }
+        return scalarSum(array, from, to);
+    }
+
+    // Product modulo 2^32, as with repeated int multiplication
+    public static int product(int[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.product(array, from, to);
+        }
+        return scalarProduct(array, from, to);
+    }
+
+    // Product modulo 2^64, as with repeated long multiplication
+    public static long product(long[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.product(array, from, to);
+        }
+        return scalarProduct(array, from, to);
+    }
+
+    public static double product(double[] array, int from, int to) {
+        checkRange(array.length, from, to);
+        if (VectorSupport.AVAILABLE && to - from >= VECTOR_THRESHOLD) {
+            return VectorKernels.product(array, from, to);
+        }
+        return scalarProduct(array, from, to);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") for length " + length);
+        }
+    }
+
+    /*
+     * Scalar loops, also used as the baseline in SumAndProductBenchmark
+     */
+
+    static long scalarSum(int[] array, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    static long scalarSum(long[] array, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    static double scalarSum(double[] array, int from, int to) {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    static int scalarProduct(int[] array, int from, int to) {
+        int total = 1;
+        for (int i = from; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+
+    static long scalarProduct(long[] array, int from, int to) {
+        long total = 1;
+        for (int i = from; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+
+    static double scalarProduct(double[] array, int from, int to) {
+        double total = 1;
+        for (int i = from; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+}
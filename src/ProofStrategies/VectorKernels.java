@@ -0,0 +1,122 @@
+package ProofStrategies;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * SIMD SUM AND PRODUCT KERNELS
+ *
+ * Each kernel loads a full vector of lanes per iteration, combines it
+ * lane-wise into a vector accumulator, and reduces the lanes once at the end.
+ * The tail that does not fill a whole vector is handled by a scalar loop.
+ *
+ * This class needs the jdk.incubator.vector module (--add-modules
+ * jdk.incubator.vector). Call it through SumAndProductKernels, which only
+ * loads it when the module is present.
+ *
+ * Ranges are 0-based and half-open: [from, to).
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    // Sum of ints, widened to long lanes so it cannot overflow
+    static long sum(int[] array, int from, int to) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, array, i);
+            // An int vector widens into two long vectors of the same bit size
+            acc = acc.add((LongVector) v.convertShape(VectorOperators.I2L, LONGS, 0));
+            acc = acc.add((LongVector) v.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        long total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    // Sum of longs, wrapping on overflow like ordinary long addition
+    static long sum(long[] array, int from, int to) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            acc = acc.add(LongVector.fromArray(LONGS, array, i));
+        }
+        long total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    // Sum of doubles; lanes are added in a different order than a scalar loop
+    static double sum(double[] array, int from, int to) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLES, array, i));
+        }
+        double total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    // Product of ints modulo 2^32, the same result as repeated int multiplication
+    static int product(int[] array, int from, int to) {
+        IntVector acc = IntVector.broadcast(INTS, 1);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            acc = acc.mul(IntVector.fromArray(INTS, array, i));
+        }
+        int total = acc.reduceLanes(VectorOperators.MUL);
+        for (; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+
+    // Product of longs modulo 2^64
+    static long product(long[] array, int from, int to) {
+        LongVector acc = LongVector.broadcast(LONGS, 1);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            acc = acc.mul(LongVector.fromArray(LONGS, array, i));
+        }
+        long total = acc.reduceLanes(VectorOperators.MUL);
+        for (; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+
+    // Product of doubles
+    static double product(double[] array, int from, int to) {
+        DoubleVector acc = DoubleVector.broadcast(DOUBLES, 1.0);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            acc = acc.mul(DoubleVector.fromArray(DOUBLES, array, i));
+        }
+        double total = acc.reduceLanes(VectorOperators.MUL);
+        for (; i < to; i++) {
+            total *= array[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,18 @@
+package ProofStrategies;
+
+/*
+ * WHETHER THE SIMD KERNELS CAN BE USED
+ *
+ * The vector kernels need the incubating Vector API, which is only resolved
+ * when the JVM is started with --add-modules jdk.incubator.vector. Every
+ * class with a vector path checks AVAILABLE and otherwise runs its scalar
+ * loops, so no kernel class is loaded without the module.
+ */
+public final class VectorSupport {
+    // Whether the incubating Vector API module was resolved at startup
+    public static final boolean AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorSupport() {
+    }
+}
@@ -1,23 +1,120 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
 public class ArchimedeanProperty {
+    // Below this n, n and every candidate near it are exact doubles
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 53;
+
+    // Batches at least this large are processed in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
     // Find the smallest n such that n * a > b
-    public static int findN(double a, double b) {
+    // n is floor(b / a) + 1, computed directly instead of by counting up from 1.
+    // The comparison n * a > b is exact (no rounding of the product).
+    public static long findN(double a, double b) {
         // Archimedean property applies only to positive numbers
-        if (a <= 0 || b <= 0) {
-            throw new IllegalArgumentException("Both a and b must be positive.");
+        if (!(a > 0 && b > 0) || Double.isInfinite(a) || Double.isInfinite(b)) {
+            throw new IllegalArgumentException("Both a and b must be positive and finite.");
         }
 
-        int n = 1; // Start with the smallest natural number
-        while (n * a <= b) { // Check if n * a is still less than or equal to b
-            n++; // Increment n
+        double quotient = b / a;
+        if (quotient >= EXACT_DOUBLE_LIMIT / 2) {
+            return exactFindN(a, b); // Too large to correct with double arithmetic
+        }
+
+        // The rounded quotient is within one of the answer; step to the exact one
+        long n = (long) quotient + 1;
+        while (n > 1 && exceeds(n - 1, a, b)) {
+            n--;
+        }
+        while (!exceeds(n, a, b)) {
+            n++;
         }
         return n; // Return the first n satisfying n * a > b
     }
 
+    /**
+     * Computes findN for many pairs, in parallel for large batches.
+     *
+     * @param a The values of a
+     * @param b The values of b, with the same length as a
+     * @param results Receives findN(a[i], b[i]) at index i
+     */
+    public static void findN(double[] a, double[] b, long[] results) {
+        if (a.length != b.length || results.length < a.length) {
+            throw new IllegalArgumentException("a and b must have the same length, and results must be as long.");
+        }
+        if (a.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < a.length; i++) {
+                results[i] = findN(a[i], b[i]);
+            }
+        } else {
+            IntStream.range(0, a.length).parallel().forEach(i -> results[i] = findN(a[i], b[i]));
+        }
+    }
+
+    // Checks n * a > b exactly; n is at most 2^53, so it converts to a double without rounding
+    private static boolean exceeds(long n, double a, double b) {
+        // fma rounds n * a - b once, which keeps its sign unless the difference underflows to 0
+        double difference = Math.fma((double) n, a, -b);
+        if (difference != 0) {
+            return difference > 0;
+        }
+        return new BigDecimal(a).multiply(BigDecimal.valueOf(n)).compareTo(new BigDecimal(b)) > 0;
+    }
+
+    // floor(b / a) + 1 in exact integer arithmetic, writing each double as mantissa * 2^exponent
+    private static long exactFindN(double a, double b) {
+        BigInteger numerator = BigInteger.valueOf(mantissa(b));
+        BigInteger denominator = BigInteger.valueOf(mantissa(a));
+        int shift = exponent(b) - exponent(a);
+        if (shift >= 0) {
+            numerator = numerator.shiftLeft(shift);
+        } else {
+            denominator = denominator.shiftLeft(-shift);
+        }
+        BigInteger n = numerator.divide(denominator).add(BigInteger.ONE);
+        if (n.bitLength() > 63) {
+            throw new ArithmeticException("n = floor(b / a) + 1 does not fit in a long.");
+        }
+        return n.longValue();
+    }
+
+    // The 53-bit integer m with x = m * 2^exponent(x), for positive finite x
+    private static long mantissa(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        long fraction = bits & 0xFFFFFFFFFFFFFL;
+        return Math.getExponent(x) == Double.MIN_EXPONENT - 1 ? fraction : fraction | (1L << 52);
+    }
+
+    private static int exponent(double x) {
+        int e = Math.getExponent(x);
+        return (e == Double.MIN_EXPONENT - 1 ? Double.MIN_EXPONENT : e) - 52;
+    }
+
     public static void main(String[] args) {
         // Test values
         double a = 0.5, b = 5;
 
         // Display the result of the Archimedean property
         System.out.println("Smallest n such that n * a > b: " + findN(a, b)); // Should return 11
+
+        // Counting up from 1 would take 10^18 steps here
+        System.out.println("Smallest n such that n * 1e-9 > 1e9: " + findN(1e-9, 1e9));
+
+        // A million pairs at once
+        int count = 1_000_000;
+        double[] as = new double[count];
+        double[] bs = new double[count];
+        for (int i = 0; i < count; i++) {
+            as[i] = 0.001 * (i + 1);
+            bs[i] = 1000.0 + i;
+        }
+        long[] results = new long[count];
+        long start = System.nanoTime();
+        findN(as, bs, results);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Batch of " + count + " pairs: " + elapsed / 1_000_000 + " ms, last n = " + results[count - 1]);
     }
 }
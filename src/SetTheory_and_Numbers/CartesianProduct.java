@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * A lazy view of the Cartesian product of any number of sets.
+ *
+ * No tuple is stored. The tuples are numbered 0 .. size() - 1 in the same
+ * order as Main.cartesianProduct (the last set varies fastest), and the
+ * tuple with a given number is decoded by mixed-radix arithmetic: the set
+ * sizes are the digits' bases. Iteration decodes only its first tuple and
+ * then steps like an odometer, so each further tuple costs O(1) amortised.
+ *
+ * Every tuple is written into a reused int[] buffer with one entry per set;
+ * copy it if it has to be kept. A spliterator splits its index range in
+ * half, so products far too large to materialise can be streamed in parallel.
+ */
+public class CartesianProduct {
+    // Index ranges smaller than this are not split further
+    private static final long MIN_SPLIT_SIZE = 1 << 12;
+
+    private final int[][] sets; // The factor sets, in order
+    private final long size;    // Number of tuples
+
+    /**
+     * @param sets The factor sets; they are copied
+     * @throws ArithmeticException If the number of tuples does not fit in a long
+     */
+    public CartesianProduct(int[]... sets) {
+        this.sets = new int[sets.length][];
+        long count = 1;
+        for (int i = 0; i < sets.length; i++) {
+            this.sets[i] = sets[i].clone();
+            count = Math.multiplyExact(count, sets[i].length);
+        }
+        this.size = count;
+    }
+
+    public static void main(String[] args) {
+        CartesianProduct small = new CartesianProduct(new int[]{1, 2}, new int[]{3, 4}, new int[]{5, 6, 7});
+        System.out.println("Size: " + small.size());
+        small.stream(false).forEach(tuple -> System.out.println(Arrays.toString(tuple)));
+
+        // Tuple number 7 directly, without visiting the others
+        int[] buffer = new int[small.arity()];
+        small.tuple(7, buffer);
+        System.out.println("Tuple 7: " + Arrays.toString(buffer));
+
+        // A 10^8-tuple product streamed across cores: count tuples with an even sum
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        int[][] factors = new int[8][];
+        Arrays.fill(factors, digits);
+        CartesianProduct large = new CartesianProduct(factors);
+        long start = System.nanoTime();
+        long even = large.stream(true).filter(tuple -> {
+            int sum = 0;
+            for (int x : tuple) {
+                sum += x;
+            }
+            return (sum & 1) == 0;
+        }).count();
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Even sums among " + large.size() + " tuples: " + even + " (" + elapsed / 1_000_000 + " ms)");
+    }
+
+    // Number of tuples
+    public long size() {
+        return size;
+    }
+
+    // Number of sets, and so the length of each tuple
+    public int arity() {
+        return sets.length;
+    }
+
+    /**
+     * Writes the tuple with the given number into the buffer.
+     *
+     * @param index The tuple number, in [0, size())
+     * @param buffer An array of length at least arity()
+     */
+    public void tuple(long index, int[] buffer) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Tuple " + index + " out of range for size " + size);
+        }
+        // The last set is the least significant digit
+        for (int i = sets.length - 1; i >= 0; i--) {
+            int radix = sets[i].length;
+            buffer[i] = sets[i][(int) (index % radix)];
+            index /= radix;
+        }
+    }
+
+    /**
+     * Returns a splittable view of all tuples.
+     *
+     * @return A spliterator that reuses one buffer per split
+     */
+    public Spliterator<int[]> spliterator() {
+        return new TupleSpliterator(0, size);
+    }
+
+    /**
+     * Returns a stream of all tuples.
+     *
+     * @param parallel Whether the stream should run on the common ForkJoin pool
+     * @return A stream of reused buffers, one per tuple
+     */
+    public Stream<int[]> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    /*
+     * Tuples with numbers in [next, end). The digits always describe tuple
+     * next, so emitting a tuple is a read and moving on is one odometer
+     * increment; the mixed-radix decode only happens when a spliterator is
+     * created or its range changes.
+     */
+    private class TupleSpliterator implements Spliterator<int[]> {
+        private final int[] digits; // digits[i] = position in sets[i] of tuple next
+        private final int[] out;    // out[i] = sets[i][digits[i]], handed to consumers
+        private long next;          // Number of the next tuple to emit
+        private final long end;     // One past the last number of this split
+
+        TupleSpliterator(long next, long end) {
+            this(next, end, new int[sets.length], new int[sets.length]);
+            if (next < end) {
+                moveTo(next);
+            }
+        }
+
+        private TupleSpliterator(long next, long end, int[] digits, int[] out) {
+            this.digits = digits;
+            this.out = out;
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(out);
+            increment();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super int[]> action) {
+            while (next < end) {
+                action.accept(out);
+                increment();
+            }
+        }
+
+        // Decodes tuple index into digits and out; the last set is the least significant digit
+        private void moveTo(long index) {
+            for (int i = sets.length - 1; i >= 0; i--) {
+                int radix = sets[i].length;
+                digits[i] = (int) (index % radix);
+                out[i] = sets[i][digits[i]];
+                index /= radix;
+            }
+        }
+
+        // Steps to tuple next + 1; after the last tuple of the split the digits are left as they are
+        private void increment() {
+            next++;
+            if (next == end) {
+                return; // Tuple end may not exist, so there is nothing to carry into
+            }
+            int i = sets.length - 1;
+            while (++digits[i] == sets[i].length) {
+                digits[i] = 0;
+                out[i] = sets[i][0];
+                i--;
+            }
+            out[i] = sets[i][digits[i]];
+        }
+
+        /*
+         * Hands tuples [next, mid) to a new spliterator. It starts exactly
+         * where this one stands, so it takes copies of the current digits;
+         * this one then decodes tuple mid and continues from there.
+         */
+        @Override
+        public Spliterator<int[]> trySplit() {
+            long remaining = end - next;
+            if (remaining < 2 * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            long mid = next + remaining / 2;
+            TupleSpliterator lower = new TupleSpliterator(next, mid, digits.clone(), out.clone());
+            next = mid;
+            moveTo(mid);
+            return lower;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
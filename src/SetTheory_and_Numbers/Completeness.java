@@ -5,6 +5,8 @@ public class Completeness {
     /**
      * Finds the supremum (least upper bound) of a set manually.
      * Supremum is the largest number in the set.
+     * NaN values are skipped, since no comparison with NaN is true.
+     * Extrema finds both bounds of a double[] or a file in one parallel pass.
      *
      * @param set The list of numbers
      * @return The supremum of the set
@@ -25,6 +27,7 @@ public class Completeness {
     /**
      * Finds the infimum (greatest lower bound) of a set manually.
      * Infimum is the smallest number in the set.
+     * NaN values are skipped, since no comparison with NaN is true.
      *
      * @param set The list of numbers
      * @return The infimum of the set
@@ -0,0 +1,90 @@
+/*
+ * A mutable complex number for scalar loops.
+ *
+ * Each operation updates this object in place and returns it, so a loop
+ * such as a dot product or a running sum can keep its state in one object
+ * instead of allocating a new ComplexNumber at every step.
+ */
+public class ComplexAccumulator {
+    private double real;
+    private double imaginary;
+
+    // Starts at 0 + 0i
+    public ComplexAccumulator() {
+    }
+
+    public ComplexAccumulator(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    public double getReal() {
+        return real;
+    }
+
+    public double getImaginary() {
+        return imaginary;
+    }
+
+    public ComplexAccumulator set(double re, double im) {
+        real = re;
+        imaginary = im;
+        return this;
+    }
+
+    // Resets to 0 + 0i
+    public ComplexAccumulator reset() {
+        return set(0, 0);
+    }
+
+    // this = this + (re + im i)
+    public ComplexAccumulator add(double re, double im) {
+        real += re;
+        imaginary += im;
+        return this;
+    }
+
+    public ComplexAccumulator add(ComplexNumber z) {
+        return add(z.getReal(), z.getImaginary());
+    }
+
+    // this = this * (c + di), using (a + bi)(c + di) = (ac - bd) + (ad + bc)i
+    public ComplexAccumulator multiply(double c, double d) {
+        double a = real;
+        double b = imaginary;
+        real = a * c - b * d;
+        imaginary = a * d + b * c;
+        return this;
+    }
+
+    public ComplexAccumulator multiply(ComplexNumber z) {
+        return multiply(z.getReal(), z.getImaginary());
+    }
+
+    // this = this + (ar + ai i)(br + bi i), the step of a complex dot product
+    public ComplexAccumulator multiplyAdd(double ar, double ai, double br, double bi) {
+        real += ar * br - ai * bi;
+        imaginary += ar * bi + ai * br;
+        return this;
+    }
+
+    // this = conjugate of this
+    public ComplexAccumulator conjugate() {
+        imaginary = -imaginary;
+        return this;
+    }
+
+    public double modulus() {
+        return ComplexArray.modulus(real, imaginary);
+    }
+
+    // An immutable copy of the current value
+    public ComplexNumber toComplexNumber() {
+        return new ComplexNumber(real, imaginary);
+    }
+
+    @Override
+    public String toString() {
+        return real + " + " + imaginary + "i";
+    }
+}
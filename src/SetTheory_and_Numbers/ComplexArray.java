@@ -0,0 +1,228 @@
+import ProofStrategies.VectorSupport;
+
+import java.util.Arrays;
+
+/*
+ * An array of complex numbers stored as two double[] arrays, one for the
+ * real parts and one for the imaginary parts (struct-of-arrays layout).
+ *
+ * ComplexNumber is immutable, so every operation on it allocates a new
+ * object. The bulk operations here work in place on whole arrays instead:
+ * nothing is allocated per element, the loops run over plain doubles, and
+ * when the jdk.incubator.vector module is present they are done several
+ * lanes at a time by ComplexVectorKernels.
+ *
+ * The backing arrays are exposed (real() and imaginary()) so that other
+ * code, such as an FFT, can work on them directly.
+ */
+public class ComplexArray {
+    // Arrays shorter than this are not worth setting up vectors for
+    private static final int VECTOR_THRESHOLD = 32;
+
+    private final double[] real;
+    private final double[] imaginary;
+
+    // Creates an array of n zeros
+    public ComplexArray(int n) {
+        this(new double[n], new double[n]);
+    }
+
+    /**
+     * Wraps existing arrays without copying them.
+     *
+     * @param real The real parts
+     * @param imaginary The imaginary parts, with the same length
+     */
+    public ComplexArray(double[] real, double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("real and imaginary must have the same length.");
+        }
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    public static void main(String[] args) {
+        ComplexArray z = new ComplexArray(new double[]{3, 1, 0}, new double[]{4, -2, 1});
+        ComplexArray w = new ComplexArray(new double[]{1, 1, 0}, new double[]{-2, 0, 1});
+
+        z.add(w);
+        System.out.println("z + w = " + z);
+        z.multiply(w);
+        System.out.println("(z + w) * w = " + z);
+        z.conjugate();
+        System.out.println("conjugate = " + z);
+        double[] moduli = new double[z.length()];
+        z.modulus(moduli);
+        System.out.println("moduli = " + Arrays.toString(moduli));
+
+        // A scalar loop without allocation: sum of z[i] * w[i]
+        ComplexAccumulator dot = new ComplexAccumulator();
+        for (int i = 0; i < z.length(); i++) {
+            dot.multiplyAdd(z.real(i), z.imaginary(i), w.real(i), w.imaginary(i));
+        }
+        System.out.println("sum of z[i] * w[i] = " + dot);
+    }
+
+    public int length() {
+        return real.length;
+    }
+
+    // The backing array of real parts
+    public double[] real() {
+        return real;
+    }
+
+    // The backing array of imaginary parts
+    public double[] imaginary() {
+        return imaginary;
+    }
+
+    public double real(int i) {
+        return real[i];
+    }
+
+    public double imaginary(int i) {
+        return imaginary[i];
+    }
+
+    public ComplexNumber get(int i) {
+        return new ComplexNumber(real[i], imaginary[i]);
+    }
+
+    public void set(int i, double re, double im) {
+        real[i] = re;
+        imaginary[i] = im;
+    }
+
+    public void set(int i, ComplexNumber z) {
+        set(i, z.getReal(), z.getImaginary());
+    }
+
+    /**
+     * Adds other element by element: this[i] = this[i] + other[i].
+     *
+     * @return This array
+     */
+    public ComplexArray add(ComplexArray other) {
+        checkLength(other);
+        if (VectorSupport.AVAILABLE && length() >= VECTOR_THRESHOLD) {
+            ComplexVectorKernels.add(real, imaginary, other.real, other.imaginary);
+        } else {
+            for (int i = 0; i < real.length; i++) {
+                real[i] += other.real[i];
+                imaginary[i] += other.imaginary[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies by other element by element: (a + bi)(c + di) = (ac - bd) + (ad + bc)i.
+     *
+     * @return This array
+     */
+    public ComplexArray multiply(ComplexArray other) {
+        checkLength(other);
+        if (VectorSupport.AVAILABLE && length() >= VECTOR_THRESHOLD) {
+            ComplexVectorKernels.multiply(real, imaginary, other.real, other.imaginary);
+        } else {
+            for (int i = 0; i < real.length; i++) {
+                double a = real[i];
+                double b = imaginary[i];
+                double c = other.real[i];
+                double d = other.imaginary[i];
+                real[i] = a * c - b * d;
+                imaginary[i] = a * d + b * c;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every element by the same complex number c + di.
+     *
+     * @return This array
+     */
+    public ComplexArray multiply(double c, double d) {
+        for (int i = 0; i < real.length; i++) {
+            double a = real[i];
+            double b = imaginary[i];
+            real[i] = a * c - b * d;
+            imaginary[i] = a * d + b * c;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces every element by its conjugate: a + bi becomes a - bi.
+     *
+     * @return This array
+     */
+    public ComplexArray conjugate() {
+        if (VectorSupport.AVAILABLE && length() >= VECTOR_THRESHOLD) {
+            ComplexVectorKernels.negate(imaginary);
+        } else {
+            for (int i = 0; i < imaginary.length; i++) {
+                imaginary[i] = -imaginary[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The modulus sqrt(re^2 + im^2), computed without overflow or underflow.
+     * The larger part m is factored out, |z| = m * sqrt(1 + (small / m)^2),
+     * so no square of a huge or tiny part is ever formed. The result is
+     * within a few ulps of Math.hypot, which is much slower.
+     */
+    public static double modulus(double re, double im) {
+        double a = Math.abs(re);
+        double b = Math.abs(im);
+        if (Double.isInfinite(a) || Double.isInfinite(b)) {
+            return Double.POSITIVE_INFINITY; // Even if the other part is NaN, as Math.hypot does
+        }
+        double large = Math.max(a, b);
+        double small = Math.min(a, b);
+        if (large == 0) {
+            return 0;
+        }
+        double ratio = small / large;
+        return large * Math.sqrt(1 + ratio * ratio);
+    }
+
+    /**
+     * Writes the modulus of every element into out, scaled as in modulus(re, im).
+     *
+     * @param out An array at least as long as this one
+     */
+    public void modulus(double[] out) {
+        if (out.length < real.length) {
+            throw new IllegalArgumentException("out is shorter than the array.");
+        }
+        if (VectorSupport.AVAILABLE && length() >= VECTOR_THRESHOLD) {
+            ComplexVectorKernels.modulus(real, imaginary, out);
+        } else {
+            for (int i = 0; i < real.length; i++) {
+                out[i] = modulus(real[i], imaginary[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < real.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(real[i]).append(" + ").append(imaginary[i]).append('i');
+        }
+        return builder.append(']').toString();
+    }
+
+    private void checkLength(ComplexArray other) {
+        if (other.length() != length()) {
+            throw new IllegalArgumentException("Arrays must have the same length.");
+        }
+    }
+}
@@ -9,8 +9,19 @@ public class ComplexNumber {
         this.imaginary = imaginary; // Set the imaginary part
     }
 
+    // Returns the real part
+    public double getReal() {
+        return real;
+    }
+
+    // Returns the imaginary part
+    public double getImaginary() {
+        return imaginary;
+    }
+
     /**
      * Adds this complex number to another complex number.
+     * For many numbers at once without allocation, see ComplexArray.
      * Formula: (a + bi) + (c + di) = (a + c) + (b + d)i
      *
      * @param other The other complex number to add
@@ -37,12 +48,13 @@ public class ComplexNumber {
 
     /**
      * Computes the modulus (absolute value) of the complex number.
-     * Formula: |z| = sqrt(a^2 + b^2)
+     * Formula: |z| = sqrt(a^2 + b^2), scaled so that large or tiny parts
+     * do not overflow or underflow (see ComplexArray.modulus)
      *
      * @return The modulus of the complex number
      */
     public double modulus() {
-        return Math.sqrt(this.real * this.real + this.imaginary * this.imaginary); // Return sqrt(a^2 + b^2)
+        return ComplexArray.modulus(this.real, this.imaginary); // Return sqrt(a^2 + b^2)
     }
 
     /**
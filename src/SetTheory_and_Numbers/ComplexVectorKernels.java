@@ -0,0 +1,88 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * SIMD kernels for ComplexArray.
+ *
+ * Real and imaginary parts live in separate arrays, so a vector of real
+ * parts and a vector of imaginary parts are loaded side by side and the
+ * complex formulas are applied lane-wise with no shuffling. The tail that
+ * does not fill a whole vector is handled by a scalar loop.
+ *
+ * Needs --add-modules jdk.incubator.vector; ComplexArray only calls it when
+ * the module is present.
+ */
+final class ComplexVectorKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private ComplexVectorKernels() {
+    }
+
+    // (re, im) += (otherRe, otherIm)
+    static void add(double[] re, double[] im, double[] otherRe, double[] otherIm) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(re.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, re, i).add(DoubleVector.fromArray(DOUBLES, otherRe, i)).intoArray(re, i);
+            DoubleVector.fromArray(DOUBLES, im, i).add(DoubleVector.fromArray(DOUBLES, otherIm, i)).intoArray(im, i);
+        }
+        for (; i < re.length; i++) {
+            re[i] += otherRe[i];
+            im[i] += otherIm[i];
+        }
+    }
+
+    // (re, im) *= (otherRe, otherIm)
+    static void multiply(double[] re, double[] im, double[] otherRe, double[] otherIm) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(re.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector a = DoubleVector.fromArray(DOUBLES, re, i);
+            DoubleVector b = DoubleVector.fromArray(DOUBLES, im, i);
+            DoubleVector c = DoubleVector.fromArray(DOUBLES, otherRe, i);
+            DoubleVector d = DoubleVector.fromArray(DOUBLES, otherIm, i);
+            a.mul(c).sub(b.mul(d)).intoArray(re, i);
+            a.mul(d).add(b.mul(c)).intoArray(im, i);
+        }
+        for (; i < re.length; i++) {
+            double a = re[i];
+            double b = im[i];
+            re[i] = a * otherRe[i] - b * otherIm[i];
+            im[i] = a * otherIm[i] + b * otherRe[i];
+        }
+    }
+
+    // values = -values
+    static void negate(double[] values) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(values.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, values, i).neg().intoArray(values, i);
+        }
+        for (; i < values.length; i++) {
+            values[i] = -values[i];
+        }
+    }
+
+    // out = sqrt(re^2 + im^2), lane by lane as in ComplexArray.modulus(re, im)
+    static void modulus(double[] re, double[] im, double[] out) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(re.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector a = DoubleVector.fromArray(DOUBLES, re, i).abs();
+            DoubleVector b = DoubleVector.fromArray(DOUBLES, im, i).abs();
+            DoubleVector large = a.max(b);
+            DoubleVector ratio = a.min(b).div(large);
+            DoubleVector result = ratio.mul(ratio).add(1).sqrt().mul(large);
+            // 0 / 0 and Infinity / Infinity give NaN ratios; those lanes are 0 and Infinity
+            VectorMask<Double> infinite = a.test(VectorOperators.IS_INFINITE).or(b.test(VectorOperators.IS_INFINITE));
+            result = result.blend(0, large.eq(0)).blend(Double.POSITIVE_INFINITY, infinite);
+            result.intoArray(out, i);
+        }
+        for (; i < re.length; i++) {
+            out[i] = ComplexArray.modulus(re[i], im[i]);
+        }
+    }
+}
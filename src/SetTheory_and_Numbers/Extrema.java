@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Supremum and infimum of a finite set of doubles, with the positions where
+ * they are attained, in one pass.
+ *
+ * For a finite set the supremum is the maximum and the infimum the minimum,
+ * as in Completeness. Here both are found together, over a double[] or over
+ * a binary file of doubles that is memory-mapped rather than read onto the
+ * heap. Large inputs are split in half on ForkJoin workers and the partial
+ * results are combined; files are mapped one segment per worker task, so the
+ * scan runs as fast as the pages can be read.
+ *
+ * If the maximum or minimum occurs more than once, the first index is
+ * reported. NaN values are handled according to a NaNPolicy.
+ */
+public class Extrema {
+    // Ranges shorter than this are scanned sequentially
+    private static final int THRESHOLD = 1 << 15;
+
+    // Bytes of a file mapped by one task (a multiple of 8, well under the 2 GB mapping limit)
+    private static final long SEGMENT_BYTES = 1L << 26;
+
+    // What to do when the input contains NaN
+    public enum NaNPolicy {
+        IGNORE,    // Skip NaN values, as Completeness.manualSupremum does
+        PROPAGATE, // The supremum and infimum are NaN, located at the first NaN
+        THROW      // Throw an IllegalArgumentException naming the first NaN
+    }
+
+    // The supremum and infimum of a set and where they occur
+    public static final class Result {
+        private final double supremum;
+        private final long argmax;
+        private final double infimum;
+        private final long argmin;
+
+        Result(double supremum, long argmax, double infimum, long argmin) {
+            this.supremum = supremum;
+            this.argmax = argmax;
+            this.infimum = infimum;
+            this.argmin = argmin;
+        }
+
+        // Largest value, or -Infinity for an empty set
+        public double supremum() {
+            return supremum;
+        }
+
+        // Index of the first largest value, or -1 for an empty set
+        public long argmax() {
+            return argmax;
+        }
+
+        // Smallest value, or +Infinity for an empty set
+        public double infimum() {
+            return infimum;
+        }
+
+        // Index of the first smallest value, or -1 for an empty set
+        public long argmin() {
+            return argmin;
+        }
+
+        @Override
+        public String toString() {
+            return "sup=" + supremum + " at " + argmax + ", inf=" + infimum + " at " + argmin;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        double[] values = {3.5, 1.2, Double.NaN, 7.8, 4.4, 2.9, 7.8};
+        System.out.println("Ignoring NaN:    " + of(values, NaNPolicy.IGNORE));
+        System.out.println("Propagating NaN: " + of(values, NaNPolicy.PROPAGATE));
+
+        // A file of 5 million doubles, scanned through a memory mapping
+        int n = 5_000_000;
+        Path file = Files.createTempFile("extrema", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DoubleBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 8L * n).asDoubleBuffer();
+            for (int i = 0; i < n; i++) {
+                buffer.put(Math.sin(i * 0.001) * i);
+            }
+        }
+        long start = System.nanoTime();
+        Result result = of(file, ByteOrder.BIG_ENDIAN, NaNPolicy.THROW);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Mapped file:     " + result + " (" + elapsed / 1_000_000 + " ms)");
+        Files.delete(file);
+    }
+
+    /**
+     * Finds the supremum and infimum of an array.
+     *
+     * @param values The numbers
+     * @param policy How NaN values are treated
+     */
+    public static Result of(double[] values, NaNPolicy policy) {
+        Partial partial = values.length <= THRESHOLD
+                ? scan(values, 0, values.length)
+                : ForkJoinPool.commonPool().invoke(new ArrayTask(values, 0, values.length));
+        return partial.toResult(policy);
+    }
+
+    /**
+     * Finds the supremum and infimum of a file of raw 8-byte doubles,
+     * mapping it into memory one segment at a time.
+     *
+     * @param file A file whose length is a multiple of 8
+     * @param order The byte order of the doubles (DataOutputStream writes BIG_ENDIAN)
+     * @param policy How NaN values are treated
+     * @return The result, with indices counted in doubles from the start of the file
+     */
+    public static Result of(Path file, ByteOrder order, NaNPolicy policy) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % Double.BYTES != 0) {
+                throw new IllegalArgumentException("File length " + bytes + " is not a multiple of 8.");
+            }
+            int segments = (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+            Partial partial;
+            try {
+                partial = segments <= 1
+                        ? scanSegment(channel, order, 0, bytes)
+                        : ForkJoinPool.commonPool().invoke(new FileTask(channel, order, bytes, 0, segments));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return partial.toResult(policy);
+        }
+    }
+
+    // Extrema of a contiguous range, before the NaN policy is applied
+    private static final class Partial {
+        double max = Double.NEGATIVE_INFINITY;
+        long argmax = -1;
+        double min = Double.POSITIVE_INFINITY;
+        long argmin = -1;
+        long firstNaN = -1;
+
+        // Adds a value; indices must arrive in increasing order
+        void accept(double value, long index) {
+            if (value > max || argmax < 0 && value == max) {
+                max = value;
+                argmax = index;
+            }
+            if (value < min || argmin < 0 && value == min) {
+                min = value;
+                argmin = index;
+            }
+            if (value != value && firstNaN < 0) {
+                firstNaN = index;
+            }
+        }
+
+        // Combines with the partial result of the range that follows this one
+        Partial combine(Partial later) {
+            if (later.max > max || argmax < 0 && later.argmax >= 0) {
+                max = later.max;
+                argmax = later.argmax;
+            }
+            if (later.min < min || argmin < 0 && later.argmin >= 0) {
+                min = later.min;
+                argmin = later.argmin;
+            }
+            if (firstNaN < 0) {
+                firstNaN = later.firstNaN;
+            }
+            return this;
+        }
+
+        Result toResult(NaNPolicy policy) {
+            if (firstNaN >= 0) {
+                if (policy == NaNPolicy.THROW) {
+                    throw new IllegalArgumentException("NaN at index " + firstNaN + ".");
+                }
+                if (policy == NaNPolicy.PROPAGATE) {
+                    return new Result(Double.NaN, firstNaN, Double.NaN, firstNaN);
+                }
+            }
+            return new Result(max, argmax, min, argmin);
+        }
+    }
+
+    private static Partial scan(double[] values, int from, int to) {
+        Partial partial = new Partial();
+        for (int i = from; i < to; i++) {
+            partial.accept(values[i], i);
+        }
+        return partial;
+    }
+
+    // Maps bytes [offset, offset + length) of the file and scans them
+    private static Partial scanSegment(FileChannel channel, ByteOrder order, long offset, long length) throws IOException {
+        DoubleBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(order).asDoubleBuffer();
+        Partial partial = new Partial();
+        long first = offset / Double.BYTES;
+        int count = buffer.remaining();
+        for (int i = 0; i < count; i++) {
+            partial.accept(buffer.get(i), first + i);
+        }
+        return partial;
+    }
+
+    // Splits an array range in half until it is short
+    @SuppressWarnings("serial")
+    private static class ArrayTask extends RecursiveTask<Partial> {
+        private final double[] values;
+        private final int from;
+        private final int to;
+
+        ArrayTask(double[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= THRESHOLD) {
+                return scan(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ArrayTask left = new ArrayTask(values, from, mid);
+            left.fork();
+            Partial right = new ArrayTask(values, mid, to).compute();
+            return left.join().combine(right);
+        }
+    }
+
+    // Splits a range of file segments in half until one segment remains
+    @SuppressWarnings("serial")
+    private static class FileTask extends RecursiveTask<Partial> {
+        private final FileChannel channel;
+        private final ByteOrder order;
+        private final long bytes;
+        private final int fromSegment;
+        private final int toSegment;
+
+        FileTask(FileChannel channel, ByteOrder order, long bytes, int fromSegment, int toSegment) {
+            this.channel = channel;
+            this.order = order;
+            this.bytes = bytes;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toSegment - fromSegment == 1) {
+                long offset = fromSegment * SEGMENT_BYTES;
+                try {
+                    return scanSegment(channel, order, offset, Math.min(SEGMENT_BYTES, bytes - offset));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (fromSegment + toSegment) >>> 1;
+            FileTask left = new FileTask(channel, order, bytes, fromSegment, mid);
+            left.fork();
+            Partial right = new FileTask(channel, order, bytes, mid, toSegment).compute();
+            return left.join().combine(right);
+        }
+    }
+}
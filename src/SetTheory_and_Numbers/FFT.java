@@ -0,0 +1,538 @@
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/*
+ * Fast Fourier transform over split real/imaginary double[] arrays.
+ *
+ * The discrete Fourier transform of x_0 .. x_{n-1} is
+ *     X_k = sum_j x_j * e^(-2 pi i jk / n),
+ * and the inverse transform (which divides by n) recovers x from X.
+ *
+ * - Lengths that are powers of two use the iterative radix-2 algorithm: the
+ *   input is put in bit-reversed order, then log2(n) passes of butterflies
+ *   combine transforms of length 2, 4, 8, ... in place. O(n log n).
+ * - Any other length uses Bluestein's algorithm, which rewrites the
+ *   transform as a convolution and evaluates it with power-of-two FFTs,
+ *   so every length is O(n log n).
+ * - The twiddle factors e^(-2 pi i k / n) are kept in one table for the
+ *   largest power-of-two length used so far; a length n that divides it
+ *   reads every (N / n)-th entry. Bluestein's chirp sequences are kept for
+ *   the few most recently used lengths. Tables up to length 2^20 are held
+ *   outright, so those caches stay below about 200 MB however many lengths
+ *   are used. A longer twiddle table is held only softly, so repeated large
+ *   transforms reuse it but the garbage collector can reclaim it; longer
+ *   chirps are computed per call.
+ * - Transforms of at least getParallelThreshold() points split every
+ *   butterfly pass, and the building of their twiddle table, into chunks on
+ *   the common ForkJoin pool.
+ *
+ * realTransform transforms real input with one complex FFT of half the
+ * length, and convolve and multiply use the FFT to multiply polynomials.
+ * Results are subject to floating-point rounding; PolynomialExpansion in
+ * ProofStrategies gives exact integer products.
+ */
+public class FFT {
+    // Transforms at least this long run their passes in parallel
+    private static volatile int parallelThreshold = 1 << 24;
+
+    // multiply rejects inputs with |p| * |q| * log2(m) above this (see multiply)
+    private static final double EXACT_PRODUCT_LIMIT = 0x1p46;
+
+    // Number of chunks each parallel pass is split into
+    private static final int PARALLEL_CHUNKS = 64;
+
+    // Twiddle tables and chirp transforms longer than this are not cached
+    private static final int MAX_CACHED_LENGTH = 1 << 20;
+
+    // Maximum number of chirps kept in the cache
+    private static final int CHIRP_CACHE_CAPACITY = 8;
+
+    // Twiddle factors for the largest cached power-of-two length N: cos and -sin of 2 pi k / N, k < N / 2
+    private static volatile double[][] twiddleTable;
+
+    // A twiddle table longer than MAX_CACHED_LENGTH, kept until memory runs short
+    private static volatile SoftReference<double[][]> largeTwiddleTable = new SoftReference<>(null);
+
+    // Bluestein data for recently used lengths that are not powers of two (see Chirp);
+    // least recently used chirps are evicted first
+    private static final Map<Integer, Chirp> CHIRP_CACHE =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Chirp> eldest) {
+                    return size() > CHIRP_CACHE_CAPACITY;
+                }
+            };
+
+    public static void main(String[] args) {
+        // A length-8 transform and its inverse
+        double[] re = {1, 2, 3, 4, 0, 0, 0, 0};
+        double[] im = new double[8];
+        transform(re, im, false);
+        System.out.println("FFT re: " + Arrays.toString(round(re)));
+        System.out.println("FFT im: " + Arrays.toString(round(im)));
+        transform(re, im, true);
+        System.out.println("Inverse: " + Arrays.toString(round(re)));
+
+        // A length that is not a power of two
+        double[] x = {1, 0, -1, 0, 1, 0, -1, 0, 1, 0, -1, 0};
+        double[] spectrumRe = new double[x.length / 2 + 1];
+        double[] spectrumIm = new double[x.length / 2 + 1];
+        realTransform(x, spectrumRe, spectrumIm);
+        System.out.println("Real FFT of period-4 signal (n = 12): " + Arrays.toString(round(spectrumRe)));
+
+        // (1 + 2x + 3x^2)(4 + 5x) = 4 + 13x + 22x^2 + 15x^3
+        System.out.println("Product: " + Arrays.toString(multiply(new long[]{1, 2, 3}, new long[]{4, 5})));
+
+        // A large transform
+        int n = 1 << 22;
+        double[] bigRe = new double[n];
+        double[] bigIm = new double[n];
+        for (int i = 0; i < n; i++) {
+            bigRe[i] = Math.sin(0.001 * i);
+        }
+        long start = System.nanoTime();
+        transform(bigRe, bigIm, false);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("FFT of 2^22 points: " + elapsed / 1_000_000 + " ms");
+    }
+
+    // Sets the length from which passes run in parallel
+    public static void setParallelThreshold(int newThreshold) {
+        if (newThreshold < 2) {
+            throw new IllegalArgumentException("threshold must be at least 2.");
+        }
+        parallelThreshold = newThreshold;
+    }
+
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Transforms re + i*im in place.
+     *
+     * @param re The real parts
+     * @param im The imaginary parts, with the same length
+     * @param inverse Whether to compute the inverse transform (including the 1/n factor)
+     */
+    public static void transform(double[] re, double[] im, boolean inverse) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("re and im must have the same length.");
+        }
+        int n = re.length;
+        if (n <= 1) {
+            return;
+        }
+        if (Integer.bitCount(n) == 1) {
+            radix2(re, im, inverse);
+        } else {
+            bluestein(re, im, inverse);
+        }
+        if (inverse) {
+            double scale = 1.0 / n;
+            for (int i = 0; i < n; i++) {
+                re[i] *= scale;
+                im[i] *= scale;
+            }
+        }
+    }
+
+    // Transforms a ComplexArray in place
+    public static void transform(ComplexArray z, boolean inverse) {
+        transform(z.real(), z.imaginary(), inverse);
+    }
+
+    /**
+     * Transforms real input. The output for k > n / 2 is the conjugate of
+     * the output for n - k, so only X_0 .. X_{n/2} are written.
+     *
+     * @param x The real input, not modified
+     * @param outRe Receives the real parts of X_0 .. X_{n/2}
+     * @param outIm Receives the imaginary parts of X_0 .. X_{n/2}
+     */
+    public static void realTransform(double[] x, double[] outRe, double[] outIm) {
+        int n = x.length;
+        int bins = n / 2 + 1;
+        if (outRe.length < bins || outIm.length < bins) {
+            throw new IllegalArgumentException("Outputs need room for n / 2 + 1 values.");
+        }
+        if (n == 0) {
+            return;
+        }
+        if ((n & 1) != 0) {
+            // Odd lengths have no half-length trick; transform as complex input
+            double[] re = x.clone();
+            double[] im = new double[n];
+            transform(re, im, false);
+            System.arraycopy(re, 0, outRe, 0, bins);
+            System.arraycopy(im, 0, outIm, 0, bins);
+            return;
+        }
+
+        // Pack even samples as real parts and odd samples as imaginary parts
+        int h = n / 2;
+        double[] zr = new double[h];
+        double[] zi = new double[h];
+        for (int j = 0; j < h; j++) {
+            zr[j] = x[2 * j];
+            zi[j] = x[2 * j + 1];
+        }
+        transform(zr, zi, false);
+
+        // With Z = E + iO, E_k = (Z_k + conj(Z_{h-k})) / 2 and O_k = (Z_k - conj(Z_{h-k})) / 2i,
+        // and X_k = E_k + e^(-2 pi i k / n) O_k
+        double[][] table = Integer.bitCount(n) == 1 ? twiddles(n) : null;
+        int step = table != null ? 2 * table[0].length / n : 0;
+        for (int k = 0; k <= h; k++) {
+            int a = k % h;
+            int b = (h - k) % h;
+            double er = (zr[a] + zr[b]) / 2;
+            double ei = (zi[a] - zi[b]) / 2;
+            double or = (zi[a] + zi[b]) / 2;
+            double oi = -(zr[a] - zr[b]) / 2;
+            double wr;
+            double wi;
+            if (table != null && k < h) {
+                wr = table[0][k * step];
+                wi = table[1][k * step];
+            } else {
+                double angle = -2 * Math.PI * k / n;
+                wr = Math.cos(angle);
+                wi = Math.sin(angle);
+            }
+            outRe[k] = er + wr * or - wi * oi;
+            outIm[k] = ei + wr * oi + wi * or;
+        }
+    }
+
+    /**
+     * Linear convolution: c_k = sum of a_i * b_j over i + j = k.
+     *
+     * @return An array of length a.length + b.length - 1 (empty if either input is)
+     */
+    public static double[] convolve(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return new double[0];
+        }
+        int length = a.length + b.length - 1;
+        int m = Integer.highestOneBit(Math.max(1, length - 1)) << 1;
+
+        // One transform of z = a + ib gives both spectra:
+        // A_k = (Z_k + conj(Z_{-k})) / 2, B_k = (Z_k - conj(Z_{-k})) / 2i,
+        // so A_k * B_k = (Z_k^2 - conj(Z_{-k})^2) / 4i.
+        // That difference cancels, leaving an error of order |Z|^2, so a and b are first
+        // scaled by 2^e and 2^-e to about equal norms; the product is unchanged and the
+        // error stays of order |a| |b|.
+        int e = (Math.getExponent(norm(b)) - Math.getExponent(norm(a))) / 2;
+        double[] re = new double[m];
+        double[] im = new double[m];
+        for (int i = 0; i < a.length; i++) {
+            re[i] = Math.scalb(a[i], e);
+        }
+        for (int i = 0; i < b.length; i++) {
+            im[i] = Math.scalb(b[i], -e);
+        }
+        transform(re, im, false);
+        double[] pr = new double[m];
+        double[] pi = new double[m];
+        for (int k = 0; k < m; k++) {
+            int r = (m - k) & (m - 1);
+            double zr = re[k];
+            double zi = im[k];
+            double cr = re[r];
+            double ci = -im[r];
+            double squareRe = zr * zr - zi * zi - (cr * cr - ci * ci);
+            double squareIm = 2 * zr * zi - 2 * cr * ci;
+            // Dividing by 4i: (x + iy) / 4i = (y - ix) / 4
+            pr[k] = squareIm / 4;
+            pi[k] = -squareRe / 4;
+        }
+        transform(pr, pi, true);
+        return Arrays.copyOf(pr, length);
+    }
+
+    /**
+     * Multiplies polynomials with integer coefficients, lowest degree first,
+     * rounding the FFT result to the nearest integers.
+     *
+     * The rounding error of each coefficient stays below about
+     * 2^-53 * |p| * |q| * log2(m), where |.| is the Euclidean norm and m the
+     * transform length. Inputs are accepted while that is under 2^-7, far
+     * enough below 1/2 that every coefficient rounds to the exact integer.
+     *
+     * @throws ArithmeticException If the coefficients are too large for doubles to give exact results
+     */
+    public static long[] multiply(long[] p, long[] q) {
+        double[] a = new double[p.length];
+        double[] b = new double[q.length];
+        for (int i = 0; i < p.length; i++) {
+            a[i] = p[i];
+        }
+        for (int i = 0; i < q.length; i++) {
+            b[i] = q[i];
+        }
+        int m = Integer.highestOneBit(Math.max(1, p.length + q.length - 2)) << 1;
+        int logM = Integer.numberOfTrailingZeros(m);
+        if (norm(a) * norm(b) * Math.max(1, logM) > EXACT_PRODUCT_LIMIT) {
+            throw new ArithmeticException("Coefficients too large for an exact floating-point FFT.");
+        }
+        double[] c = convolve(a, b);
+        long[] result = new long[c.length];
+        for (int i = 0; i < c.length; i++) {
+            result[i] = Math.round(c[i]);
+        }
+        return result;
+    }
+
+    // Euclidean norm, scaled so that squaring cannot overflow
+    private static double norm(double[] x) {
+        double max = 0;
+        for (double v : x) {
+            max = Math.max(max, Math.abs(v));
+        }
+        if (max == 0 || Double.isInfinite(max)) {
+            return max;
+        }
+        double sum = 0;
+        for (double v : x) {
+            double scaled = v / max;
+            sum += scaled * scaled;
+        }
+        return max * Math.sqrt(sum);
+    }
+
+    /*
+     * Iterative radix-2 FFT. Stage s combines pairs of transforms of length
+     * half into transforms of length 2 * half; the twiddle for butterfly j is
+     * e^(-2 pi i j / (2 * half)), read from the length-N table with stride N / (2 * half).
+     */
+    private static void radix2(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+        boolean parallel = n >= parallelThreshold;
+        bitReverse(re, im, parallel);
+        double[][] table = twiddles(n);
+        double[] cos = table[0];
+        double[] sin = table[1];
+        int tableLength = 2 * cos.length;
+        double sign = inverse ? -1 : 1;
+
+        for (int half = 1; half < n; half <<= 1) {
+            int length = 2 * half;
+            int stride = tableLength / length;
+            int stage = half;
+            if (parallel) {
+                int butterflies = n / 2;
+                int chunk = (butterflies + PARALLEL_CHUNKS - 1) / PARALLEL_CHUNKS;
+                IntStream.range(0, PARALLEL_CHUNKS).parallel().forEach(c -> {
+                    int end = Math.min(butterflies, (c + 1) * chunk);
+                    for (int t = c * chunk; t < end; t++) {
+                        int j = t & (stage - 1);
+                        int a = (t - j) * 2 + j; // Block t / stage starts at (t - j) * 2
+                        butterfly(re, im, a, a + stage, cos[j * stride], sign * sin[j * stride]);
+                    }
+                });
+            } else {
+                for (int start = 0; start < n; start += length) {
+                    for (int j = 0; j < half; j++) {
+                        butterfly(re, im, start + j, start + j + half, cos[j * stride], sign * sin[j * stride]);
+                    }
+                }
+            }
+        }
+    }
+
+    // (x_a, x_b) becomes (x_a + w x_b, x_a - w x_b)
+    private static void butterfly(double[] re, double[] im, int a, int b, double wr, double wi) {
+        double tr = wr * re[b] - wi * im[b];
+        double ti = wr * im[b] + wi * re[b];
+        re[b] = re[a] - tr;
+        im[b] = im[a] - ti;
+        re[a] += tr;
+        im[a] += ti;
+    }
+
+    // Swaps each element with the one at its bit-reversed index
+    private static void bitReverse(double[] re, double[] im, boolean parallel) {
+        int n = re.length;
+        int shift = 32 - Integer.numberOfTrailingZeros(n);
+        if (parallel) {
+            // Each pair is swapped by the task that owns its smaller index, so tasks never conflict
+            int chunk = (n + PARALLEL_CHUNKS - 1) / PARALLEL_CHUNKS;
+            IntStream.range(0, PARALLEL_CHUNKS).parallel().forEach(c -> {
+                int end = Math.min(n, (c + 1) * chunk);
+                for (int i = c * chunk; i < end; i++) {
+                    swapIfLower(re, im, i, Integer.reverse(i) >>> shift);
+                }
+            });
+        } else {
+            for (int i = 0; i < n; i++) {
+                swapIfLower(re, im, i, Integer.reverse(i) >>> shift);
+            }
+        }
+    }
+
+    private static void swapIfLower(double[] re, double[] im, int i, int j) {
+        if (i < j) {
+            double t = re[i];
+            re[i] = re[j];
+            re[j] = t;
+            t = im[i];
+            im[i] = im[j];
+            im[j] = t;
+        }
+    }
+
+    // A twiddle table for a power-of-two length N >= n; entry k * (N / n) belongs to k for length n
+    private static double[][] twiddles(int n) {
+        double[][] table = twiddleTable;
+        if (table != null && 2 * table[0].length >= n) {
+            return table;
+        }
+        if (n > MAX_CACHED_LENGTH) {
+            table = largeTwiddleTable.get();
+            if (table != null && 2 * table[0].length >= n) {
+                return table;
+            }
+        }
+
+        int size = Math.max(n, 2);
+        int half = size / 2;
+        double[] cos = new double[half];
+        double[] sin = new double[half];
+        if (size >= parallelThreshold) {
+            int chunk = (half + PARALLEL_CHUNKS - 1) / PARALLEL_CHUNKS;
+            IntStream.range(0, PARALLEL_CHUNKS).parallel()
+                    .forEach(c -> fillTwiddles(cos, sin, size, c * chunk, Math.min(half, (c + 1) * chunk)));
+        } else {
+            fillTwiddles(cos, sin, size, 0, half);
+        }
+        table = new double[][]{cos, sin};
+
+        synchronized (FFT.class) {
+            // Another thread may have cached a longer table meanwhile; keep the longer one
+            if (size <= MAX_CACHED_LENGTH) {
+                if (twiddleTable == null || twiddleTable[0].length < half) {
+                    twiddleTable = table;
+                }
+            } else {
+                double[][] cached = largeTwiddleTable.get();
+                if (cached == null || cached[0].length < half) {
+                    largeTwiddleTable = new SoftReference<>(table);
+                }
+            }
+        }
+        return table;
+    }
+
+    // cos and -sin of 2 pi k / size for k in [from, to)
+    private static void fillTwiddles(double[] cos, double[] sin, int size, int from, int to) {
+        for (int k = from; k < to; k++) {
+            double angle = 2 * Math.PI * k / size;
+            cos[k] = Math.cos(angle);
+            sin[k] = -Math.sin(angle);
+        }
+    }
+
+    /*
+     * Bluestein's algorithm. Since jk = (j^2 + k^2 - (k - j)^2) / 2,
+     *     X_k = w_k * sum_j (x_j * w_j) * conj(w_{k-j}),  with w_j = e^(-pi i j^2 / n),
+     * a convolution that is evaluated with power-of-two FFTs of length m >= 2n - 1.
+     * The inverse transform is conj(FFT(conj(x))), scaled by the caller.
+     */
+    private static void bluestein(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+        Chirp chirp = chirp(n);
+        int m = chirp.spectrumRe.length;
+        double sign = inverse ? -1 : 1;
+
+        double[] ar = new double[m];
+        double[] ai = new double[m];
+        for (int j = 0; j < n; j++) {
+            double xr = re[j];
+            double xi = sign * im[j];
+            ar[j] = xr * chirp.cos[j] - xi * chirp.sin[j];
+            ai[j] = xr * chirp.sin[j] + xi * chirp.cos[j];
+        }
+        radix2(ar, ai, false);
+        for (int k = 0; k < m; k++) {
+            double br = chirp.spectrumRe[k];
+            double bi = chirp.spectrumIm[k];
+            double r = ar[k] * br - ai[k] * bi;
+            ai[k] = ar[k] * bi + ai[k] * br;
+            ar[k] = r;
+        }
+        transform(ar, ai, true);
+        for (int k = 0; k < n; k++) {
+            double r = ar[k] * chirp.cos[k] - ai[k] * chirp.sin[k];
+            double i = ar[k] * chirp.sin[k] + ai[k] * chirp.cos[k];
+            re[k] = r;
+            im[k] = sign * i;
+        }
+    }
+
+    // Bluestein's chirp w_j = cos[j] + i sin[j], and the transform of conj(w) padded to length m
+    private static final class Chirp {
+        final double[] cos;
+        final double[] sin;
+        final double[] spectrumRe;
+        final double[] spectrumIm;
+
+        Chirp(double[] cos, double[] sin, double[] spectrumRe, double[] spectrumIm) {
+            this.cos = cos;
+            this.sin = sin;
+            this.spectrumRe = spectrumRe;
+            this.spectrumIm = spectrumIm;
+        }
+    }
+
+    private static Chirp chirp(int n) {
+        synchronized (CHIRP_CACHE) {
+            Chirp cached = CHIRP_CACHE.get(n);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Chirp chirp = computeChirp(n);
+        if (chirp.spectrumRe.length <= MAX_CACHED_LENGTH) {
+            synchronized (CHIRP_CACHE) {
+                CHIRP_CACHE.put(n, chirp);
+            }
+        }
+        return chirp;
+    }
+
+    private static Chirp computeChirp(int size) {
+        double[] cos = new double[size];
+        double[] sin = new double[size];
+        for (int j = 0; j < size; j++) {
+            // j^2 mod 2n keeps the angle small, so it stays accurate for large j
+            long square = (long) j * j % (2L * size);
+            double angle = -Math.PI * square / size;
+            cos[j] = Math.cos(angle);
+            sin[j] = Math.sin(angle);
+        }
+        int m = Integer.highestOneBit(2 * size - 2) << 1;
+        double[] br = new double[m];
+        double[] bi = new double[m];
+        br[0] = cos[0];
+        bi[0] = -sin[0];
+        for (int j = 1; j < size; j++) {
+            br[j] = br[m - j] = cos[j];
+            bi[j] = bi[m - j] = -sin[j];
+        }
+        radix2(br, bi, false);
+        return new Chirp(cos, sin, br, bi);
+    }
+
+    // Rounds to 6 decimal places for display
+    private static double[] round(double[] values) {
+        double[] rounded = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            rounded[i] = Math.round(values[i] * 1e6) / 1e6;
+        }
+        return rounded;
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/*
+ * Properties of a function f restricted to a finite domain.
+ *
+ * The function is any IntUnaryOperator. Its values on the domain are first
+ * computed into a plain int[] (in parallel for large domains), then examined
+ * with one pass over an IntHashSet of the images:
+ * - injective:  no image is added twice (the pass can stop at the first repeat)
+ * - surjective: every codomain element is among the images
+ * - image size: the number of distinct images
+ * Each check is O(n + m) instead of the O(n^2) and O(n * m) scans in
+ * SetFunctions.
+ *
+ * The domain is assumed to have no duplicates, and f must be a pure function
+ * because it may be called from several threads.
+ */
+public class FunctionAnalyzer {
+    // Domains at least this large are mapped in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Everything analyze finds out about f on a domain
+    public static final class Report {
+        private final boolean injective;
+        private final boolean surjective;
+        private final int imageSize;
+
+        Report(boolean injective, boolean surjective, int imageSize) {
+            this.injective = injective;
+            this.surjective = surjective;
+            this.imageSize = imageSize;
+        }
+
+        public boolean isInjective() {
+            return injective;
+        }
+
+        public boolean isSurjective() {
+            return surjective;
+        }
+
+        // A function that is both is a bijection from the domain onto the codomain
+        public boolean isBijective() {
+            return injective && surjective;
+        }
+
+        public int imageSize() {
+            return imageSize;
+        }
+
+        @Override
+        public String toString() {
+            return "injective=" + injective + ", surjective=" + surjective + ", imageSize=" + imageSize;
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = 1_000_000;
+        int[] domain = new int[n];
+        int[] codomain = new int[n];
+        for (int i = 0; i < n; i++) {
+            domain[i] = i;
+            codomain[i] = 2 * i;
+        }
+
+        System.out.println("f(x) = 2x:       " + analyze(domain, codomain, x -> 2 * x));
+        System.out.println("f(x) = x mod 10: " + analyze(domain, codomain, x -> x % 10));
+        System.out.println("f(x) = x^2 injective on [0, n): " + isInjective(domain, x -> x * x));
+        System.out.println("f(x) = x / 2 injective on [0, n): " + isInjective(domain, x -> x / 2));
+    }
+
+    /**
+     * Applies f to every domain element.
+     *
+     * @return An array with f(domain[i]) at index i
+     */
+    public static int[] map(int[] domain, IntUnaryOperator f) {
+        int[] images = new int[domain.length];
+        if (domain.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < domain.length; i++) {
+                images[i] = f.applyAsInt(domain[i]);
+            }
+        } else {
+            IntStream.range(0, domain.length).parallel().forEach(i -> images[i] = f.applyAsInt(domain[i]));
+        }
+        return images;
+    }
+
+    // Checks that no two domain elements have the same image, stopping at the first collision
+    public static boolean isInjective(int[] domain, IntUnaryOperator f) {
+        int[] images = map(domain, f);
+        IntHashSet seen = new IntHashSet(images.length);
+        for (int image : images) {
+            if (!seen.add(image)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Checks that every codomain element is the image of some domain element
+    public static boolean isSurjective(int[] domain, int[] codomain, IntUnaryOperator f) {
+        return coversCodomain(imageSet(domain, f), codomain);
+    }
+
+    // Number of distinct values f takes on the domain
+    public static int imageSize(int[] domain, IntUnaryOperator f) {
+        return imageSet(domain, f).size();
+    }
+
+    /**
+     * Decides injectivity and surjectivity and counts the image in one pass
+     * over the mapped domain.
+     */
+    public static Report analyze(int[] domain, int[] codomain, IntUnaryOperator f) {
+        int[] images = map(domain, f);
+        IntHashSet seen = new IntHashSet(images.length);
+        boolean injective = true;
+        for (int image : images) {
+            if (!seen.add(image)) {
+                injective = false; // Keep going: the image size still needs every value
+            }
+        }
+        return new Report(injective, coversCodomain(seen, codomain), seen.size());
+    }
+
+    private static IntHashSet imageSet(int[] domain, IntUnaryOperator f) {
+        return IntHashSet.of(map(domain, f));
+    }
+
+    private static boolean coversCodomain(IntHashSet images, int[] codomain) {
+        for (int y : codomain) {
+            if (!images.contains(y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/*
+ * Iterates a function f that maps a finite domain into itself.
+ *
+ * Repeatedly applying f to x gives the orbit x, f(x), f(f(x)), ... Because
+ * the domain is finite, every orbit runs along a tail of mu distinct values
+ * and then repeats a cycle of lambda values forever.
+ *
+ * - Binary lifting: jump[k][i] is the position of f^(2^k)(x_i). Writing n in
+ *   binary, f^n(x) is found with one table lookup per set bit, so O(log n)
+ *   even for n = 10^12. Levels are built on first use; level k + 1 is level
+ *   k applied to itself.
+ * - Brent's algorithm finds mu and lambda of a single orbit of any
+ *   IntUnaryOperator in O(mu + lambda) calls and O(1) memory.
+ * - orbitLengths finds mu and lambda for every domain element together in
+ *   one O(n) walk over the graph x -> f(x).
+ *
+ * Domain elements are addressed by their position in the sorted domain.
+ */
+public class FunctionIteration {
+    private final int[] values;    // The domain, sorted and without duplicates
+    private volatile int[][] jump; // jump[k][i]: position of f^(2^k)(values[i]); levels are added lazily
+
+    /**
+     * @param domain The domain elements
+     * @param f A function with f(x) in the domain for every x in the domain
+     * @throws IllegalArgumentException If f maps some element outside the domain
+     */
+    public FunctionIteration(int[] domain, IntUnaryOperator f) {
+        values = SortedIntSets.toSortedSet(domain);
+        int[] step = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int image = f.applyAsInt(values[i]);
+            step[i] = Arrays.binarySearch(values, image);
+            if (step[i] < 0) {
+                throw new IllegalArgumentException("f(" + values[i] + ") = " + image + " is not in the domain.");
+            }
+        }
+        jump = new int[][]{step};
+    }
+
+    // Tail and cycle length of an orbit
+    public static final class Orbit {
+        private final long tailLength;
+        private final long cycleLength;
+
+        Orbit(long tailLength, long cycleLength) {
+            this.tailLength = tailLength;
+            this.cycleLength = cycleLength;
+        }
+
+        // Number of values before the orbit first enters its cycle (mu)
+        public long tailLength() {
+            return tailLength;
+        }
+
+        // Number of distinct values on the cycle (lambda)
+        public long cycleLength() {
+            return cycleLength;
+        }
+
+        @Override
+        public String toString() {
+            return "tail=" + tailLength + ", cycle=" + cycleLength;
+        }
+    }
+
+    public static void main(String[] args) {
+        // f(x) = (x^2 + 1) mod 1000, a map of {0, ..., 999} into itself
+        int m = 1000;
+        int[] domain = new int[m];
+        for (int i = 0; i < m; i++) {
+            domain[i] = i;
+        }
+        IntUnaryOperator f = x -> (x * x + 1) % m;
+        FunctionIteration iteration = new FunctionIteration(domain, f);
+
+        long n = 1_000_000_000_000L;
+        System.out.println("f^(10^12)(3) = " + iteration.apply(3, n));
+        System.out.println("Orbit of 3 (Brent): " + brent(3, f));
+
+        int[] tails = new int[m];
+        int[] cycles = new int[m];
+        iteration.orbitLengths(tails, cycles);
+        System.out.println("Orbit of 3 (batch): tail=" + tails[3] + ", cycle=" + cycles[3]);
+        System.out.println("Longest tail: " + Arrays.stream(tails).max().getAsInt());
+
+        // Brent's algorithm needs no domain table: an orbit of a linear congruential map
+        System.out.println("Orbit of 0 under x -> (5x + 3) mod 2^20: " + brent(0, x -> (5 * x + 3) & 0xFFFFF));
+    }
+
+    // Number of domain elements
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Computes f^n(x), f applied n times, in O(log n) table lookups.
+     *
+     * @param x A domain element
+     * @param n The number of applications, at least 0
+     */
+    public int apply(int x, long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        int i = Arrays.binarySearch(values, x);
+        if (i < 0) {
+            throw new IllegalArgumentException(x + " is not in the domain.");
+        }
+        int[][] table = ensureLevels(64 - Long.numberOfLeadingZeros(n));
+        for (int k = 0; n != 0; k++, n >>>= 1) {
+            if ((n & 1) != 0) {
+                i = table[k][i];
+            }
+        }
+        return values[i];
+    }
+
+    /**
+     * Computes f^n for every domain element, in parallel.
+     *
+     * @return The images f^n(x) in the order of the sorted domain
+     */
+    public int[] applyAll(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        int[][] table = ensureLevels(64 - Long.numberOfLeadingZeros(n));
+        int[] result = new int[values.length];
+        long steps = n;
+        IntStream.range(0, values.length).parallel().forEach(start -> {
+            int i = start;
+            long rest = steps;
+            for (int k = 0; rest != 0; k++, rest >>>= 1) {
+                if ((rest & 1) != 0) {
+                    i = table[k][i];
+                }
+            }
+            result[start] = values[i];
+        });
+        return result;
+    }
+
+    /**
+     * Finds the tail and cycle length of the orbit of x0 with Brent's algorithm.
+     * f is called O(mu + lambda) times and nothing is stored.
+     */
+    public static Orbit brent(int x0, IntUnaryOperator f) {
+        // Find lambda: the hare runs ahead in blocks of doubling length,
+        // and the tortoise jumps to the hare at the start of each block
+        long power = 1;
+        long lambda = 1;
+        int tortoise = x0;
+        int hare = f.applyAsInt(x0);
+        while (tortoise != hare) {
+            if (power == lambda) {
+                tortoise = hare;
+                power <<= 1;
+                lambda = 0;
+            }
+            hare = f.applyAsInt(hare);
+            lambda++;
+        }
+
+        // Find mu: start the hare lambda steps ahead, then move both until they meet
+        tortoise = x0;
+        hare = x0;
+        for (long i = 0; i < lambda; i++) {
+            hare = f.applyAsInt(hare);
+        }
+        long mu = 0;
+        while (tortoise != hare) {
+            tortoise = f.applyAsInt(tortoise);
+            hare = f.applyAsInt(hare);
+            mu++;
+        }
+        return new Orbit(mu, lambda);
+    }
+
+    /**
+     * Computes the tail length and cycle length of the orbit of every domain
+     * element in one pass. Each element is pushed and popped once, so the
+     * cost is O(n) in total.
+     *
+     * @param tails Receives the tail length (mu) of each element, in sorted domain order
+     * @param cycles Receives the cycle length (lambda) of each element, in sorted domain order
+     */
+    public void orbitLengths(int[] tails, int[] cycles) {
+        int n = values.length;
+        int[] step = jump[0];
+        // state: 0 = unvisited, -1 = done, otherwise 1 + position on the current path
+        int[] state = new int[n];
+        int[] path = new int[n];
+
+        for (int start = 0; start < n; start++) {
+            if (state[start] != 0) {
+                continue;
+            }
+            // Walk forward until the path meets itself or an element already solved
+            int length = 0;
+            int i = start;
+            while (state[i] == 0) {
+                state[i] = ++length;
+                path[length - 1] = i;
+                i = step[i];
+            }
+            int end = length;
+            if (state[i] > 0) {
+                // A new cycle: path[state[i] - 1 .. length) lies on it
+                int first = state[i] - 1;
+                int cycleLength = length - first;
+                for (int p = first; p < length; p++) {
+                    tails[path[p]] = 0;
+                    cycles[path[p]] = cycleLength;
+                    state[path[p]] = -1;
+                }
+                end = first;
+            }
+            // The rest of the path is a tail leading into solved elements
+            for (int p = end - 1; p >= 0; p--) {
+                int x = path[p];
+                tails[x] = tails[step[x]] + 1;
+                cycles[x] = cycles[step[x]];
+                state[x] = -1;
+            }
+        }
+    }
+
+    // Builds jump tables up to level count - 1 and returns the tables
+    private synchronized int[][] ensureLevels(int count) {
+        if (count <= jump.length) {
+            return jump;
+        }
+        int[][] levels = Arrays.copyOf(jump, count);
+        for (int k = jump.length; k < count; k++) {
+            int[] previous = levels[k - 1];
+            int[] next = new int[previous.length];
+            IntStream.range(0, previous.length).parallel().forEach(i -> next[i] = previous[previous[i]]);
+            levels[k] = next;
+        }
+        jump = levels;
+        return levels;
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+/*
+ * A set of primitive ints using open addressing.
+ *
+ * Elements are stored directly in an int[] table, so there is no boxing and
+ * no per-element object. A slot is found by hashing the element and probing
+ * the following slots in order (linear probing). The table is kept at most
+ * half full so probe sequences stay short, which makes add, contains and
+ * remove O(1) on average.
+ *
+ * The value 0 marks an empty slot, so the element 0 itself is tracked with a
+ * separate flag.
+ */
+public class IntHashSet {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] table;     // Slots; 0 means empty
+    private int mask;        // table.length - 1 (the length is a power of two)
+    private int shift;       // 32 - log2(table.length), for the multiplicative hash
+    private int size;        // Number of elements, including 0 if present
+    private boolean hasZero; // Whether 0 is in the set
+
+    // Creates an empty set
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    // Creates an empty set that can hold expectedSize elements without resizing
+    public IntHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    // Creates a set containing the elements of the array
+    public static IntHashSet of(int[] elements) {
+        IntHashSet set = new IntHashSet(elements.length);
+        for (int element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @return true if the element was not already in the set
+     */
+    public boolean add(int element) {
+        if (element == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int slot = hash(element);
+        while (table[slot] != 0) {
+            if (table[slot] == element) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = element;
+        size++;
+        if (2 * size > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    // Checks whether the element is in the set
+    public boolean contains(int element) {
+        if (element == 0) {
+            return hasZero;
+        }
+        int slot = hash(element);
+        int current;
+        while ((current = table[slot]) != 0) {
+            if (current == element) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes an element.
+     *
+     * @return true if the element was in the set
+     */
+    public boolean remove(int element) {
+        if (element == 0) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int slot = hash(element);
+        while (table[slot] != element) {
+            if (table[slot] == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Shift later elements of the probe run back so no lookup hits a gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != 0) {
+            int home = hash(table[next]);
+            // Move table[next] into the gap unless its home lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = 0;
+        size--;
+        return true;
+    }
+
+    // Number of elements in the set
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Removes every element, keeping the current capacity
+    public void clear() {
+        Arrays.fill(table, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    // The elements in no particular order
+    public int[] toArray() {
+        int[] result = new int[size];
+        int index = 0;
+        if (hasZero) {
+            result[index++] = 0;
+        }
+        for (int element : table) {
+            if (element != 0) {
+                result[index++] = element;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // Fibonacci hashing: multiply by 2^32 / golden ratio and keep the top bits
+    private int hash(int element) {
+        return (element * 0x9E3779B9) >>> shift;
+    }
+
+    private void allocate(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        allocate(capacity);
+        for (int element : old) {
+            if (element != 0) {
+                int slot = hash(element);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = element;
+            }
+        }
+    }
+
+    // Smallest power of two at least twice the expected size
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(2L * expectedSize, MIN_CAPACITY);
+        if (needed > (1 << 30)) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -1,65 +1,50 @@
+import java.util.Arrays;
+
 // Main class for set theory operations
+// ParallelSetOperations runs union, intersection and difference of very large sets across cores
 public class Main {
 
     // Combines elements from two sets without duplicates
+    // Membership is checked in an IntHashSet, so this runs in O(n + m)
     public static int[] union(int[] setA, int[] setB) {
         // Result array can be at most sum of both sets' lengths
         int[] result = new int[setA.length + setB.length];
         int index = 0;
 
         // First add all elements from setA to result
+        IntHashSet seen = new IntHashSet(setA.length + setB.length);
         for(int i = 0; i < setA.length; i++) {
             result[index++] = setA[i];
+            seen.add(setA[i]);
         }
 
-        // Check each element in setB
+        // Add each element of setB that is not already in result
         for(int i = 0; i < setB.length; i++) {
-            boolean exists = false;
-            // Compare with all elements already in result
-            for(int j = 0; j < index; j++) {
-                if(setB[i] == result[j]) {
-                    exists = true;  // Element already exists
-                    break;
-                }
-            }
-            // If element not found, add it
-            if(!exists) {
+            if(seen.add(setB[i])) {
                 result[index++] = setB[i];
             }
         }
 
         // Create new array with exact size needed
-        int[] trimmed = new int[index];
-        for(int i = 0; i < index; i++) {
-            trimmed[i] = result[i];
-        }
-        return trimmed;
+        return Arrays.copyOf(result, index);
     }
 
     // Finds elements that exist in both sets
     public static int[] intersection(int[] setA, int[] setB) {
-        // Result cannot be larger than smallest set
-        int[] temp = new int[Math.min(setA.length, setB.length)];
+        // Result cannot be larger than setA
+        int[] temp = new int[setA.length];
         int index = 0;
 
-        // Check each element in setA
+        // Check each element in setA against a hash set of setB
+        IntHashSet inB = IntHashSet.of(setB);
         for(int i = 0; i < setA.length; i++) {
-            // Compare with each element in setB
-            for(int j = 0; j < setB.length; j++) {
-                if(setA[i] == setB[j]) {
-                    // Found a match, add to result
-                    temp[index++] = setA[i];
-                    break;  // Move to next element in setA
-                }
+            if(inB.contains(setA[i])) {
+                temp[index++] = setA[i];  // Found a match, add to result
             }
         }
 
         // Create final array of exact size
-        int[] result = new int[index];
-        for(int i = 0; i < index; i++) {
-            result[i] = temp[i];
-        }
-        return result;
+        return Arrays.copyOf(temp, index);
     }
 
     // Finds elements in setA that are not in setB
@@ -68,44 +53,24 @@ public class Main {
         int[] temp = new int[setA.length];
         int index = 0;
 
-        // Check each element in setA
+        // Keep each element of setA that is missing from setB
+        IntHashSet inB = IntHashSet.of(setB);
         for(int i = 0; i < setA.length; i++) {
-            boolean exists = false;
-            // Look for it in setB
-            for(int j = 0; j < setB.length; j++) {
-                if(setA[i] == setB[j]) {
-                    exists = true;  // Found in setB
-                    break;
-                }
-            }
-            // If not in setB, add to result
-            if(!exists) {
+            if(!inB.contains(setA[i])) {
                 temp[index++] = setA[i];
             }
         }
 
         // Create final array of exact size
-        int[] result = new int[index];
-        for(int i = 0; i < index; i++) {
-            result[i] = temp[i];
-        }
-        return result;
+        return Arrays.copyOf(temp, index);
     }
 
     // Checks if all elements of setA exist in setB
     public static boolean isSubset(int[] setA, int[] setB) {
-        // Check each element in setA
+        IntHashSet inB = IntHashSet.of(setB);
         for(int i = 0; i < setA.length; i++) {
-            boolean found = false;
-            // Look for match in setB
-            for(int j = 0; j < setB.length; j++) {
-                if(setA[i] == setB[j]) {
-                    found = true;
-                    break;  // Found this element, move to next
-                }
-            }
             // If any element not found, not a subset
-            if(!found) return false;
+            if(!inB.contains(setA[i])) return false;
         }
         return true;  // All elements were found
     }
@@ -116,6 +81,7 @@ public class Main {
     }
 
     // Creates pairs of all possible combinations
+    // CartesianProduct gives a lazy view for more than two sets or very large products
     public static int[][] cartesianProduct(int[] setA, int[] setB) {
         // Result will have size of setA * setB
         int[][] product = new int[setA.length * setB.length][2];
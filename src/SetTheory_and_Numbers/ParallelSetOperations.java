@@ -0,0 +1,327 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/*
+ * Set operations on large int[] sets, spread over ForkJoin workers.
+ *
+ * Both inputs are partitioned by a hash of each element into P buckets, so
+ * equal elements always land in the same bucket and the buckets can be
+ * combined independently:
+ * 1. Each worker counts how many elements of its chunk of the input fall in
+ *    each bucket; prefix sums of the counts give every (chunk, bucket) pair
+ *    its own output range, so the scatter pass needs no locking.
+ * 2. Each bucket pair is combined on one worker with an IntHashSet small
+ *    enough to stay in cache, the same way Main does it for whole sets.
+ * 3. The per-bucket results are concatenated in parallel.
+ *
+ * The results contain the same elements as Main.union, Main.intersection and
+ * Main.difference, but grouped by bucket rather than in input order. Inputs
+ * smaller than SEQUENTIAL_THRESHOLD are passed to Main directly.
+ */
+public class ParallelSetOperations {
+    // Inputs with fewer elements than this are handled by Main on one thread
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    // Each worker's share of the input during partitioning is at least this long
+    private static final int MIN_CHUNK = 1 << 14;
+
+    // Input chunks per worker during partitioning, so a slow chunk does not hold up the rest
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    // At least this many buckets per worker, so uneven buckets still balance
+    private static final int BUCKETS_PER_WORKER = 4;
+
+    // Preferred elements per bucket, so a bucket's hash table fits in cache
+    private static final int BUCKET_TARGET = 1 << 15;
+
+    // Upper limit on buckets, which bounds the per-chunk histograms
+    private static final int MAX_BUCKETS = 1 << 12;
+
+    public static void main(String[] args) {
+        int n = 10_000_000;
+        int[] setA = new int[n];
+        int[] setB = new int[n];
+        for (int i = 0; i < n; i++) {
+            setA[i] = 2 * i;  // Even numbers
+            setB[i] = 3 * i;  // Multiples of three
+        }
+
+        long start = System.nanoTime();
+        int sequential = Main.intersection(setA, setB).length;
+        long sequentialTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int parallel = intersection(setA, setB).length;
+        long parallelTime = System.nanoTime() - start;
+
+        System.out.println("Workers: " + ForkJoinPool.commonPool().getParallelism());
+        System.out.println("Main.intersection:     " + sequential + " elements (" + sequentialTime / 1_000_000 + " ms)");
+        System.out.println("Parallel intersection: " + parallel + " elements (" + parallelTime / 1_000_000 + " ms)");
+        System.out.println("Union size: " + union(setA, setB).length);
+        System.out.println("Difference size: " + difference(setA, setB).length);
+        System.out.println("(A intersect B) is a subset of B: " + isSubset(intersection(setA, setB), setB));
+    }
+
+    // Elements in setA or setB
+    public static int[] union(int[] setA, int[] setB) {
+        if (setA.length + setB.length < SEQUENTIAL_THRESHOLD) {
+            return Main.union(setA, setB);
+        }
+        int bits = bucketBits(setA.length + setB.length);
+        Partition a = partition(setA, bits);
+        Partition b = partition(setB, bits);
+        int buckets = 1 << bits;
+
+        // Bucket k writes into its own range of the scratch array
+        int[] scratch = new int[setA.length + setB.length];
+        int[] counts = new int[buckets];
+        forEachParallel(buckets, k -> {
+            int out = a.start[k] + b.start[k];
+            int from = out;
+            IntHashSet seen = new IntHashSet(a.size(k) + b.size(k));
+            for (int i = a.start[k]; i < a.start[k + 1]; i++) {
+                scratch[out++] = a.data[i];
+                seen.add(a.data[i]);
+            }
+            for (int i = b.start[k]; i < b.start[k + 1]; i++) {
+                if (seen.add(b.data[i])) {
+                    scratch[out++] = b.data[i];
+                }
+            }
+            counts[k] = out - from;
+        });
+        return concatenate(scratch, k -> a.start[k] + b.start[k], counts);
+    }
+
+    // Elements in both setA and setB
+    public static int[] intersection(int[] setA, int[] setB) {
+        if (setA.length + setB.length < SEQUENTIAL_THRESHOLD) {
+            return Main.intersection(setA, setB);
+        }
+        return filter(setA, setB, true);
+    }
+
+    // Elements in setA but not in setB
+    public static int[] difference(int[] setA, int[] setB) {
+        if (setA.length + setB.length < SEQUENTIAL_THRESHOLD) {
+            return Main.difference(setA, setB);
+        }
+        return filter(setA, setB, false);
+    }
+
+    // Checks if all elements of setA exist in setB
+    public static boolean isSubset(int[] setA, int[] setB) {
+        if (setA.length + setB.length < SEQUENTIAL_THRESHOLD) {
+            return Main.isSubset(setA, setB);
+        }
+        int bits = bucketBits(setA.length + setB.length);
+        Partition a = partition(setA, bits);
+        Partition b = partition(setB, bits);
+        AtomicBoolean missing = new AtomicBoolean();
+        forEachParallel(1 << bits, k -> {
+            if (missing.get()) {
+                return; // Another bucket already found a counterexample
+            }
+            IntHashSet inB = bucketSet(b, k);
+            for (int i = a.start[k]; i < a.start[k + 1]; i++) {
+                if (!inB.contains(a.data[i])) {
+                    missing.set(true);
+                    return;
+                }
+            }
+        });
+        return !missing.get();
+    }
+
+    // Elements of setA that are (keep = true) or are not (keep = false) in setB
+    private static int[] filter(int[] setA, int[] setB, boolean keep) {
+        int bits = bucketBits(setA.length + setB.length);
+        Partition a = partition(setA, bits);
+        Partition b = partition(setB, bits);
+        int buckets = 1 << bits;
+
+        // Results are written back over A's partitioned copy, which is no longer needed
+        int[] counts = new int[buckets];
+        forEachParallel(buckets, k -> {
+            IntHashSet inB = bucketSet(b, k);
+            int out = a.start[k];
+            for (int i = a.start[k]; i < a.start[k + 1]; i++) {
+                if (inB.contains(a.data[i]) == keep) {
+                    a.data[out++] = a.data[i];
+                }
+            }
+            counts[k] = out - a.start[k];
+        });
+        return concatenate(a.data, k -> a.start[k], counts);
+    }
+
+    private static IntHashSet bucketSet(Partition partition, int bucket) {
+        IntHashSet set = new IntHashSet(partition.size(bucket));
+        for (int i = partition.start[bucket]; i < partition.start[bucket + 1]; i++) {
+            set.add(partition.data[i]);
+        }
+        return set;
+    }
+
+    // An input reordered so that each bucket's elements are contiguous
+    private static final class Partition {
+        final int[] data;  // The elements, grouped by bucket
+        final int[] start; // Bucket k is data[start[k] .. start[k + 1])
+
+        Partition(int[] data, int[] start) {
+            this.data = data;
+            this.start = start;
+        }
+
+        int size(int bucket) {
+            return start[bucket + 1] - start[bucket];
+        }
+    }
+
+    // Groups the input by bucket with the shared counting sort
+    private static Partition partition(int[] input, int bits) {
+        int[] data = new int[input.length];
+        int[] start = countingSort(input.length, 1 << bits, i -> bucket(input[i], bits), i -> input[i], data);
+        return new Partition(data, start);
+    }
+
+    /*
+     * Parallel counting sort: writes value(i) for i = 0 .. n - 1 into out,
+     * grouped by key(i) in [0, keys) and in index order within each key.
+     * The indices are cut into chunks; each chunk's histogram is computed
+     * independently, and prefix sums over (key, chunk) give every chunk a
+     * private output range per key, so the scatter needs no synchronisation.
+     * Chunks are also limited to about n / 4 keys each, so the histograms
+     * never outgrow the input. Also used by PreimageIndex.
+     *
+     * @return start, where key k's values are out[start[k] .. start[k + 1])
+     */
+    static int[] countingSort(int n, int keys, IntUnaryOperator key, IntUnaryOperator value, int[] out) {
+        int workers = ForkJoinPool.commonPool().getParallelism();
+        long histogramLimit = Math.max(1, 4L * n / Math.max(keys, 1));
+        int chunks = (int) Math.max(1, Math.min(Math.min(workers * CHUNKS_PER_WORKER, n / MIN_CHUNK), histogramLimit));
+        int chunkLength = (n + chunks - 1) / chunks;
+
+        int[][] counts = new int[chunks][keys];
+        forEachParallel(chunks, c -> {
+            int[] histogram = counts[c];
+            int end = Math.min(n, (c + 1) * chunkLength);
+            for (int i = c * chunkLength; i < end; i++) {
+                histogram[key.applyAsInt(i)]++;
+            }
+        });
+
+        // Turn the counts into write positions, key-major then chunk order
+        int[] start = new int[keys + 1];
+        int position = 0;
+        for (int k = 0; k < keys; k++) {
+            start[k] = position;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][k];
+                counts[c][k] = position;
+                position += count;
+            }
+        }
+        start[keys] = position;
+
+        forEachParallel(chunks, c -> {
+            int[] next = counts[c];
+            int end = Math.min(n, (c + 1) * chunkLength);
+            for (int i = c * chunkLength; i < end; i++) {
+                out[next[key.applyAsInt(i)]++] = value.applyAsInt(i);
+            }
+        });
+        return start;
+    }
+
+    // Offset of bucket k's result in the source array
+    private interface BucketOffset {
+        int of(int bucket);
+    }
+
+    // Copies counts[k] elements from source at offset(k) for each bucket k, in bucket order
+    private static int[] concatenate(int[] source, BucketOffset offset, int[] counts) {
+        int[] target = new int[counts.length + 1];
+        for (int k = 0; k < counts.length; k++) {
+            target[k + 1] = target[k] + counts[k];
+        }
+        int[] result = new int[target[counts.length]];
+        forEachParallel(counts.length, k ->
+                System.arraycopy(source, offset.of(k), result, target[k], counts[k]));
+        return result;
+    }
+
+    /*
+     * The bucket is taken from the low bits of the murmur3 finaliser. IntHashSet
+     * indexes by the high bits of a multiplicative hash, so the two stay
+     * independent and a bucket's elements still spread over its hash table.
+     */
+    private static int bucket(int element, int bits) {
+        int h = element;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & ((1 << bits) - 1);
+    }
+
+    // log2 of the bucket count: enough buckets to balance the workers and to keep each bucket's table small
+    private static int bucketBits(int totalLength) {
+        int workers = ForkJoinPool.commonPool().getParallelism();
+        int wanted = Math.max(workers * BUCKETS_PER_WORKER, totalLength / BUCKET_TARGET);
+        wanted = Math.min(wanted, MAX_BUCKETS);
+        return 32 - Integer.numberOfLeadingZeros(wanted - 1);
+    }
+
+    // Runs body(0 .. count - 1) on the common ForkJoin pool, one task per index
+    private static void forEachParallel(int count, IntConsumer body) {
+        forEachParallel(count, 1, body);
+    }
+
+    /**
+     * Runs body(0 .. count - 1) on the common ForkJoin pool. Also used by PreimageIndex.
+     *
+     * @param grain Ranges of at most this many indices run sequentially in one task
+     */
+    static void forEachParallel(int count, int grain, IntConsumer body) {
+        if (count <= grain) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(new IndexTask(0, count, grain, body));
+        }
+    }
+
+    // Splits an index range in half until at most grain indices remain
+    @SuppressWarnings("serial")
+    private static class IndexTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer body;
+
+        IndexTask(int from, int to, int grain, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IndexTask(from, mid, grain, body), new IndexTask(mid, to, grain, body));
+        }
+    }
+}
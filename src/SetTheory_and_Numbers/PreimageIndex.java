@@ -0,0 +1,199 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/*
+ * An index of the fibres f^-1(y) = { x in domain : f(x) = y } of a function
+ * on a finite domain, built once from the mapping.
+ *
+ * It uses the compressed sparse row (CSR) layout: the domain elements are
+ * stored in one flat array, grouped by image, and offsets[k] .. offsets[k + 1]
+ * is the range holding the fibre of the k-th image. There is no object per
+ * fibre. Within a fibre the elements keep their order in the domain.
+ *
+ * The k of an image y is found in one of two ways:
+ * - If the images span a range no wider than DENSE_FACTOR times the domain
+ *   size, k = y - min, so lookups are O(1) (empty fibres have equal offsets).
+ * - Otherwise the distinct images are kept sorted and y is binary searched,
+ *   so lookups are O(log n).
+ *
+ * The grouping is a counting sort: per-chunk histograms of the fibre numbers,
+ * prefix sums, then a scatter in which every chunk writes to its own ranges,
+ * with the chunks processed in parallel.
+ */
+public class PreimageIndex {
+    // The dense layout is used while the image span is at most this many times the domain size
+    private static final int DENSE_FACTOR = 4;
+
+    // Mapping loops over fewer elements than this stay on one thread
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private final int min;        // Smallest image
+    private final int[] keys;     // Sorted distinct images, or null for the dense layout
+    private final int[] offsets;  // Fibre k is elements[offsets[k] .. offsets[k + 1])
+    private final int[] elements; // Domain elements grouped by image
+
+    private PreimageIndex(int min, int[] keys, int[] offsets, int[] elements) {
+        this.min = min;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.elements = elements;
+    }
+
+    // Builds the index of f on the domain, mapping the domain in parallel if it is large
+    public static PreimageIndex build(int[] domain, IntUnaryOperator f) {
+        return of(domain, FunctionAnalyzer.map(domain, f));
+    }
+
+    /**
+     * Builds the index from a mapping given as two arrays.
+     *
+     * @param domain The domain elements
+     * @param images images[i] = f(domain[i])
+     */
+    public static PreimageIndex of(int[] domain, int[] images) {
+        if (domain.length != images.length) {
+            throw new IllegalArgumentException("domain and images must have the same length.");
+        }
+        int n = domain.length;
+        if (n == 0) {
+            return new PreimageIndex(0, new int[0], new int[1], new int[0]);
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int y : images) {
+            min = Math.min(min, y);
+            max = Math.max(max, y);
+        }
+
+        // Fibre number of each domain element
+        int[] fibre = new int[n];
+        int[] keys = null;
+        int fibres;
+        long span = (long) max - min + 1;
+        if (span <= (long) DENSE_FACTOR * n) {
+            fibres = (int) span;
+            int base = min;
+            ParallelSetOperations.forEachParallel(n, MIN_CHUNK, i -> fibre[i] = images[i] - base);
+        } else {
+            keys = images.clone();
+            Arrays.parallelSort(keys);
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || keys[i] != keys[distinct - 1]) {
+                    keys[distinct++] = keys[i];
+                }
+            }
+            keys = Arrays.copyOf(keys, distinct);
+            fibres = distinct;
+            int[] sortedKeys = keys;
+            ParallelSetOperations.forEachParallel(n, MIN_CHUNK, i -> fibre[i] = Arrays.binarySearch(sortedKeys, images[i]));
+        }
+
+        // Group the domain by fibre number with the counting sort shared with ParallelSetOperations
+        int[] elements = new int[n];
+        int[] offsets = ParallelSetOperations.countingSort(n, fibres, i -> fibre[i], i -> domain[i], elements);
+        return new PreimageIndex(min, keys, offsets, elements);
+    }
+
+    public static void main(String[] args) {
+        int n = 1_000_000;
+        int[] domain = new int[n];
+        for (int i = 0; i < n; i++) {
+            domain[i] = i;
+        }
+
+        // Dense images: f(x) = x mod 7
+        PreimageIndex mod7 = build(domain, x -> x % 7);
+        System.out.println("Fibre sizes of x mod 7: " + Arrays.toString(mod7.fibreSizes()));
+        System.out.println("First elements of f^-1(3): " + Arrays.toString(Arrays.copyOf(mod7.preimage(3), 5)));
+
+        // Sparse images: f(x) = x^2 mod 1000003
+        PreimageIndex squares = build(domain, x -> (int) ((long) x * x % 1_000_003));
+        System.out.println("Distinct squares mod 1000003: " + squares.imageCount());
+        System.out.println("f^-1(4) = " + Arrays.toString(squares.preimage(4)));
+        System.out.println("|f^-1(5)| = " + squares.fibreSize(5));
+    }
+
+    // Number of domain elements x with f(x) = y
+    public int fibreSize(int y) {
+        int k = fibreNumber(y);
+        return k < 0 ? 0 : offsets[k + 1] - offsets[k];
+    }
+
+    // The domain elements x with f(x) = y, in domain order
+    public int[] preimage(int y) {
+        int k = fibreNumber(y);
+        return k < 0 ? new int[0] : Arrays.copyOfRange(elements, offsets[k], offsets[k + 1]);
+    }
+
+    /**
+     * Writes the domain elements x with f(x) = y into out, without allocating.
+     *
+     * @param out An array with room for fibreSize(y) elements
+     * @return The number of elements written
+     */
+    public int preimage(int y, int[] out) {
+        int k = fibreNumber(y);
+        if (k < 0) {
+            return 0;
+        }
+        int size = offsets[k + 1] - offsets[k];
+        System.arraycopy(elements, offsets[k], out, 0, size);
+        return size;
+    }
+
+    // Number of distinct images
+    public int imageCount() {
+        if (keys != null) {
+            return keys.length;
+        }
+        int count = 0;
+        for (int k = 0; k + 1 < offsets.length; k++) {
+            if (offsets[k + 1] > offsets[k]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // The distinct images in increasing order
+    public int[] images() {
+        if (keys != null) {
+            return keys.clone();
+        }
+        int[] result = new int[imageCount()];
+        int index = 0;
+        for (int k = 0; k + 1 < offsets.length; k++) {
+            if (offsets[k + 1] > offsets[k]) {
+                result[index++] = min + k;
+            }
+        }
+        return result;
+    }
+
+    // The size of each fibre, in the order of images()
+    public int[] fibreSizes() {
+        int[] result = new int[imageCount()];
+        int index = 0;
+        for (int k = 0; k + 1 < offsets.length; k++) {
+            int size = offsets[k + 1] - offsets[k];
+            if (size > 0) {
+                result[index++] = size;
+            }
+        }
+        return result;
+    }
+
+    // Position of y's fibre in offsets, or -1 if y is not an image
+    private int fibreNumber(int y) {
+        if (keys != null) {
+            int k = Arrays.binarySearch(keys, y);
+            return k < 0 ? -1 : k;
+        }
+        long k = (long) y - min;
+        if (k < 0 || k + 1 >= offsets.length || offsets[(int) k + 1] == offsets[(int) k]) {
+            return -1;
+        }
+        return (int) k;
+    }
+}
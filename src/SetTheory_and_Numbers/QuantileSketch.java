@@ -0,0 +1,352 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleConsumer;
+
+/*
+ * Approximate quantiles of a stream of doubles in bounded memory (a KLL sketch).
+ *
+ * Values are kept in levels called compactors. A value at level h stands for
+ * 2^h values of the stream. When a level fills up it is sorted and every
+ * other value (starting at a random offset 0 or 1) is promoted to the next
+ * level, which halves the space while keeping every rank unbiased. Lower
+ * levels get capacity k * (2/3)^depth, so the whole sketch holds about 3k
+ * values plus a few per level, however long the stream is.
+ *
+ * Accuracy: with k = 200 (the default), the rank of a value, and so the
+ * position of any quantile, is within about 1.65% of n of the true rank with
+ * 99% probability; the error shrinks roughly as 1/k. The smallest and largest
+ * values are kept exactly, so quantile(0) and quantile(1) equal Completeness'
+ * infimum and supremum.
+ *
+ * Two sketches with the same k can be merged, and the merged sketch has the
+ * same guarantee as one built from the combined stream. This is how of(...)
+ * summarises an array on ForkJoin workers. NaN values are skipped.
+ *
+ * The compaction offsets come from a SplittableRandom. Give a seed to get
+ * the same sketch, and the same quantiles, for the same input on every run;
+ * of(...) then splits the seeded generator along its fixed task tree, so it
+ * is reproducible too however the tasks are scheduled.
+ */
+public class QuantileSketch implements DoubleConsumer {
+    // Default accuracy parameter
+    public static final int DEFAULT_K = 200;
+
+    // Ranges shorter than this are sketched sequentially in of(...)
+    private static final int THRESHOLD = 1 << 15;
+
+    // Each level is this fraction of the capacity of the level above it
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels = new double[0][]; // levels[h] holds values of weight 2^h
+    private int[] sizes = new int[0];            // Number of values used in each level
+    private int retained;                        // Values held across all levels
+    private int capacity;                        // Total capacity; compaction starts here
+    private long count;                          // Number of values seen
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Creates an empty sketch with the default accuracy
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param k The accuracy parameter; rank error is roughly 1.65 / k * n at 99% confidence
+     */
+    public QuantileSketch(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    /**
+     * Creates an empty sketch whose random choices are fixed by the seed.
+     *
+     * @param k The accuracy parameter
+     * @param seed Equal seeds and equal input give equal sketches
+     */
+    public QuantileSketch(int k, long seed) {
+        this(k, new SplittableRandom(seed));
+    }
+
+    private QuantileSketch(int k, SplittableRandom random) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8.");
+        }
+        this.k = k;
+        this.random = random;
+        grow();
+    }
+
+    // Sketches an array in parallel: each half is sketched separately and the halves are merged
+    public static QuantileSketch of(double[] values, int k) {
+        return of(values, k, new SplittableRandom());
+    }
+
+    // Like of(values, k), but gives the same sketch for the same seed on every run
+    public static QuantileSketch of(double[] values, int k, long seed) {
+        return of(values, k, new SplittableRandom(seed));
+    }
+
+    private static QuantileSketch of(double[] values, int k, SplittableRandom random) {
+        if (values.length <= THRESHOLD) {
+            return sketch(values, 0, values.length, k, random);
+        }
+        return ForkJoinPool.commonPool().invoke(new SketchTask(values, 0, values.length, k, random));
+    }
+
+    public static void main(String[] args) {
+        // A skewed stream: exponentially distributed values with mean 1
+        int n = 5_000_000;
+        double[] values = new double[n];
+        SplittableRandom rng = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) {
+            values[i] = -Math.log(1 - rng.nextDouble());
+        }
+
+        QuantileSketch sketch = of(values, DEFAULT_K, 7);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        System.out.println("Values seen: " + sketch.count() + ", retained: " + sketch.retained());
+        for (double q : new double[]{0.0, 0.5, 0.9, 0.99, 1.0}) {
+            double exact = sorted[(int) Math.min(n - 1, (long) (q * n))];
+            System.out.printf("q=%.2f  sketch=%.4f  exact=%.4f%n", q, sketch.quantile(q), exact);
+        }
+        System.out.println("Fraction of values <= 1: " + (double) sketch.rank(1.0) / n
+                + " (exact " + (1 - Math.exp(-1)) + ")");
+    }
+
+    // Adds a value to the sketch
+    @Override
+    public void accept(double value) {
+        if (value != value) {
+            return; // NaN
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        count++;
+        append(0, value);
+        retained++;
+        if (retained >= capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds everything summarised by another sketch. The other sketch is not changed.
+     *
+     * @return This sketch
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Sketches with different k cannot be merged.");
+        }
+        while (levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        retained += other.retained;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= capacity) {
+            compress();
+        }
+        return this;
+    }
+
+    // Number of values added, including those summarised by merged sketches
+    public long count() {
+        return count;
+    }
+
+    // Number of values currently stored
+    public int retained() {
+        return retained;
+    }
+
+    // Smallest value seen, or +Infinity if the sketch is empty
+    public double min() {
+        return min;
+    }
+
+    // Largest value seen, or -Infinity if the sketch is empty
+    public double max() {
+        return max;
+    }
+
+    // Estimated number of values <= x
+    public long rank(double x) {
+        long rank = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= x) {
+                    rank += 1L << h;
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Estimates the q-quantile: a value with about q * n values at or below it.
+     *
+     * @param q A fraction in [0, 1]; 0.5 is the median
+     * @return The estimate, or NaN if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in [0, 1].");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        // Sort each level, then walk all levels in merged order, adding up weights.
+        // Compaction turns two values of weight 2^h into one of weight 2^(h+1), so the weights add up to count.
+        double[][] sorted = new double[levels.length][];
+        int[] position = new int[levels.length];
+        for (int h = 0; h < levels.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        double target = q * count;
+        long cumulative = 0;
+        while (true) {
+            int next = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (position[h] < sorted[h].length
+                        && (next < 0 || sorted[h][position[h]] < sorted[next][position[next]])) {
+                    next = h;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            double value = sorted[next][position[next]++];
+            cumulative += 1L << next;
+            if (cumulative >= target) {
+                return value;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch(k=" + k + ", n=" + count + ", retained=" + retained + ")";
+    }
+
+    // Compacts the lowest level that is over its capacity
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= levelCapacity(h)) {
+                if (h + 1 == levels.length) {
+                    grow();
+                }
+                compact(h);
+                return;
+            }
+        }
+    }
+
+    /*
+     * Sorts level h and promotes every other value, starting at a random
+     * offset, to level h + 1. With an odd size the largest value stays behind.
+     */
+    private void compact(int h) {
+        double[] level = levels[h];
+        int size = sizes[h];
+        Arrays.sort(level, 0, size);
+        int pairs = size / 2;
+        int offset = random.nextBoolean() ? 1 : 0;
+        for (int i = 0; i < pairs; i++) {
+            append(h + 1, level[2 * i + offset]);
+        }
+        if ((size & 1) != 0) {
+            level[0] = level[size - 1];
+            sizes[h] = 1;
+        } else {
+            sizes[h] = 0;
+        }
+        retained -= pairs; // 2 * pairs values became pairs values
+    }
+
+    // Adds a new top level; the capacities of the levels below shrink
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        levels[height - 1] = new double[16];
+        capacity = 0;
+        for (int h = 0; h < height; h++) {
+            capacity += levelCapacity(h);
+        }
+    }
+
+    // k * (2/3)^depth, where the top level has depth 0
+    private int levelCapacity(int h) {
+        int depth = levels.length - h - 1;
+        return (int) Math.ceil(Math.pow(CAPACITY_RATIO, depth) * k) + 1;
+    }
+
+    private void append(int h, double value) {
+        if (sizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], 2 * levels[h].length);
+        }
+        levels[h][sizes[h]++] = value;
+    }
+
+    private static QuantileSketch sketch(double[] values, int from, int to, int k, SplittableRandom random) {
+        QuantileSketch sketch = new QuantileSketch(k, random);
+        for (int i = from; i < to; i++) {
+            sketch.accept(values[i]);
+        }
+        return sketch;
+    }
+
+    // Sketches the two halves of a range on separate workers and merges them
+    @SuppressWarnings("serial")
+    private static class SketchTask extends RecursiveTask<QuantileSketch> {
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final SplittableRandom random; // Used by this task only; children get splits
+
+        SketchTask(double[] values, int from, int to, int k, SplittableRandom random) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.random = random;
+        }
+
+        @Override
+        protected QuantileSketch compute() {
+            if (to - from <= THRESHOLD) {
+                return sketch(values, from, to, k, random);
+            }
+            int mid = (from + to) >>> 1;
+            // Split before forking, so each half's generator depends only on its place in the tree
+            SketchTask left = new SketchTask(values, from, mid, k, random.split());
+            left.fork();
+            QuantileSketch right = new SketchTask(values, mid, to, k, random.split()).compute();
+            return left.join().merge(right);
+        }
+    }
+}
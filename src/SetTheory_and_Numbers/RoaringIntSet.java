@@ -0,0 +1,827 @@
+import java.util.Arrays;
+
+/*
+ * A compressed bitmap set of ints in the style of Roaring bitmaps.
+ *
+ * The 32-bit values are split into a 16-bit chunk key (high bits) and a
+ * 16-bit offset within the chunk (low bits). Each non-empty chunk of 65536
+ * possible values is stored in the container that suits its contents:
+ * - ArrayContainer:  sorted offsets, for sparse chunks (at most 4096 values)
+ * - BitmapContainer: 1024 longs, one bit per offset, for dense chunks
+ * - RunContainer:    sorted runs [start, start + length], for ranges
+ *
+ * Set operations walk the two sorted key lists together and combine
+ * matching containers. Dense containers are combined 64 bits at a time with
+ * word-level AND, OR and AND-NOT; runs are expanded into words with range
+ * fills rather than bit by bit. Results are stored as array or bitmap
+ * containers; runOptimize switches containers to runs where that is smaller.
+ *
+ * Values are stored with the sign bit flipped, so chunks are ordered like
+ * signed ints and toArray returns the elements in increasing order.
+ */
+public class RoaringIntSet {
+    // Array containers hold at most this many values; beyond it a bitmap is smaller
+    private static final int ARRAY_MAX = 4096;
+
+    // Number of longs in a bitmap container
+    private static final int WORDS = 1 << 10;
+
+    private int[] keys;              // Sorted chunk keys (0..65535)
+    private Container[] containers;  // containers[i] holds the chunk keys[i]
+    private int size;                // Number of non-empty chunks
+
+    // Creates an empty set
+    public RoaringIntSet() {
+        keys = new int[4];
+        containers = new Container[4];
+    }
+
+    // Creates a set from the elements of an int[] (duplicates are ignored)
+    public static RoaringIntSet of(int[] elements) {
+        int[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        RoaringIntSet set = new RoaringIntSet();
+        // Sorted input reaches each chunk once, so chunks are appended in order
+        int i = 0;
+        while (i < sorted.length) {
+            int key = high(sorted[i]);
+            int j = i;
+            while (j < sorted.length && high(sorted[j]) == key) {
+                j++;
+            }
+            if (j - i <= ARRAY_MAX) {
+                char[] content = new char[j - i];
+                int count = 0;
+                for (int k = i; k < j; k++) {
+                    if (k == i || sorted[k] != sorted[k - 1]) {
+                        content[count++] = (char) low(sorted[k]);
+                    }
+                }
+                set.append(key, new ArrayContainer(content, count));
+            } else {
+                long[] words = new long[WORDS];
+                for (int k = i; k < j; k++) {
+                    int low = low(sorted[k]);
+                    words[low >>> 6] |= 1L << low;
+                }
+                set.append(key, fromWords(words));
+            }
+            i = j;
+        }
+        return set;
+    }
+
+    // Creates a set containing every int in [from, to]
+    public static RoaringIntSet ofRange(int from, int to) {
+        RoaringIntSet set = new RoaringIntSet();
+        set.addRange(from, to);
+        return set;
+    }
+
+    public static void main(String[] args) {
+        // A dense range and a sparse set
+        RoaringIntSet range = ofRange(0, 999_999);
+        RoaringIntSet evens = new RoaringIntSet();
+        for (int i = 0; i < 2_000_000; i += 2) {
+            evens.add(i);
+        }
+        RoaringIntSet sparse = of(new int[]{-5, 3, 70_000, 5_000_000});
+
+        System.out.println("|range| = " + range.cardinality());
+        System.out.println("|range intersect evens| = " + range.intersection(evens).cardinality());
+        System.out.println("|range union sparse| = " + range.union(sparse).cardinality());
+        System.out.println("|evens minus range| = " + evens.difference(range).cardinality());
+        System.out.println("sparse is a subset of range: " + sparse.isSubset(range));
+        System.out.println("sparse intersect range = " + Arrays.toString(sparse.intersection(range).toArray()));
+    }
+
+    // Adds an element
+    public void add(int value) {
+        int key = high(value);
+        int index = find(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(low(value));
+        } else {
+            insert(-index - 1, key, new ArrayContainer(new char[]{(char) low(value)}, 1));
+        }
+    }
+
+    // Adds every int in [from, to]
+    public void addRange(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        // Sign-flipped and read as unsigned, so chunk and offset are plain bit fields
+        long first = (from ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        long last = (to ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        for (long chunk = first >>> 16; chunk <= last >>> 16; chunk++) {
+            int key = (int) chunk;
+            int lo = chunk == first >>> 16 ? (int) (first & 0xFFFF) : 0;
+            int hi = chunk == last >>> 16 ? (int) (last & 0xFFFF) : 0xFFFF;
+            int index = find(key);
+            if (index < 0) {
+                insert(-index - 1, key, new RunContainer(new int[]{lo}, new int[]{hi - lo}, 1));
+            } else {
+                long[] words = containers[index].toWords();
+                setRange(words, lo, hi + 1);
+                containers[index] = fromWords(words);
+            }
+        }
+    }
+
+    // Removes an element
+    public void remove(int value) {
+        int index = find(high(value));
+        if (index >= 0) {
+            Container c = containers[index].remove(low(value));
+            if (c == null) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+                containers[--size] = null;
+            } else {
+                containers[index] = c;
+            }
+        }
+    }
+
+    // Checks whether the value is in the set
+    public boolean contains(int value) {
+        int index = find(high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    // Number of elements
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // The elements in increasing order
+    public int[] toArray() {
+        long total = cardinality();
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Set is too large for an int[]: " + total);
+        }
+        int[] result = new int[(int) total];
+        int index = 0;
+        for (int i = 0; i < size; i++) {
+            index = containers[i].fill(result, index, keys[i] << 16);
+        }
+        return result;
+    }
+
+    // Elements in this set or the other
+    public RoaringIntSet union(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        for (; i < size; i++) {
+            result.append(keys[i], containers[i].copy());
+        }
+        for (; j < other.size; j++) {
+            result.append(other.keys[j], other.containers[j].copy());
+        }
+        return result;
+    }
+
+    // Elements in both this set and the other
+    public RoaringIntSet intersection(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                Container c = and(containers[i], other.containers[j]);
+                if (c != null) {
+                    result.append(keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Elements in this set but not in the other
+    public RoaringIntSet difference(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                Container c = andNot(containers[i], other.containers[j]);
+                if (c != null) {
+                    result.append(keys[i], c);
+                }
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    // Checks if every element of this set is in the other
+    public boolean isSubset(RoaringIntSet other) {
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j == other.size || other.keys[j] != keys[i]) {
+                return false; // A whole chunk is missing from the other set
+            }
+            if (!subset(containers[i], other.containers[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Converts each container to run encoding where that takes less memory
+    public void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            int runs = c.runCount();
+            int runBytes = 2 + 4 * runs;
+            int otherBytes = Math.min(2 * c.cardinality(), 2 * WORDS * 4);
+            if (runBytes < otherBytes && !(c instanceof RunContainer)) {
+                containers[i] = RunContainer.ofWords(c.toWords(), runs);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /*
+     * Container combinations. These never modify their inputs and always
+     * return a new container (or null for an empty result), so the result
+     * set can be changed without affecting the operands.
+     */
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer
+                && a.cardinality() + b.cardinality() <= ARRAY_MAX) {
+            return ((ArrayContainer) a).merge((ArrayContainer) b);
+        }
+        long[] words = a.toWords();
+        b.orInto(words);
+        return fromWords(words);
+    }
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        long[] words = a.toWords();
+        long[] other = b.toWords();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] &= other[w];
+        }
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        long[] words = a.toWords();
+        long[] other = b.toWords();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] &= ~other[w];
+        }
+        return fromWords(words);
+    }
+
+    private static boolean subset(Container a, Container b) {
+        if (a.cardinality() > b.cardinality()) {
+            return false;
+        }
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false) == null;
+        }
+        long[] words = a.toWords();
+        long[] other = b.toWords();
+        for (int w = 0; w < WORDS; w++) {
+            if ((words[w] & ~other[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Picks an array or bitmap container for the given bits, or null if empty
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long w : words) {
+            cardinality += Long.bitCount(w);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > ARRAY_MAX) {
+            return new BitmapContainer(words, cardinality);
+        }
+        char[] content = new char[cardinality];
+        int index = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                content[index++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(content, cardinality);
+    }
+
+    // Sets bits [from, to) a word at a time
+    private static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;  // Shift counts are taken mod 64
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+        } else {
+            words[firstWord] |= firstMask;
+            for (int w = firstWord + 1; w < lastWord; w++) {
+                words[w] = -1L;
+            }
+            words[lastWord] |= lastMask;
+        }
+    }
+
+    /*
+     * Chunk bookkeeping
+     */
+
+    private static int high(int value) {
+        return (value ^ Integer.MIN_VALUE) >>> 16;
+    }
+
+    private static int low(int value) {
+        return value & 0xFFFF;
+    }
+
+    // Index of the key, or -(insertion point) - 1
+    private int find(int key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, int key, Container container) {
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    // Adds a chunk whose key is larger than every existing key
+    private void append(int key, Container container) {
+        ensureCapacity(size + 1);
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+    }
+
+    /*
+     * Containers for the 65536 offsets of one chunk
+     */
+
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(int low);
+
+        // Adds the offset in place; returns this, or a replacement of another type
+        abstract Container add(int low);
+
+        // Removes the offset in place; returns this, a replacement, or null if now empty
+        abstract Container remove(int low);
+
+        // An independent copy, so a container is never shared between two sets
+        abstract Container copy();
+
+        // A fresh 1024-word bitmap of this container's offsets
+        abstract long[] toWords();
+
+        // ORs this container's offsets into a bitmap
+        abstract void orInto(long[] words);
+
+        // Writes the full values (high | offset, sign bit restored) into out from index
+        abstract int fill(int[] out, int index, int high);
+
+        // Number of maximal runs of consecutive offsets
+        abstract int runCount();
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] content; // Sorted offsets; only the first 'cardinality' are used
+        private int cardinality;
+
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(content, 0, cardinality, (char) low) >= 0;
+        }
+
+        @Override
+        Container add(int low) {
+            int index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                long[] words = toWords();
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, cardinality + 1);
+            }
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            int at = -index - 1;
+            System.arraycopy(content, at, content, at + 1, cardinality - at);
+            content[at] = (char) low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            int index = Arrays.binarySearch(content, 0, cardinality, (char) low);
+            if (index < 0) {
+                return this;
+            }
+            if (cardinality == 1) {
+                return null;
+            }
+            System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, cardinality), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            orInto(words);
+            return words;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < cardinality; i++) {
+                int low = content[i];
+                words[low >>> 6] |= 1L << low;
+            }
+        }
+
+        @Override
+        int fill(int[] out, int index, int high) {
+            for (int i = 0; i < cardinality; i++) {
+                out[index++] = (high | content[i]) ^ Integer.MIN_VALUE;
+            }
+            return index;
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (i == 0 || content[i] != content[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        // Union of two sorted arrays whose combined size fits an array container
+        Container merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int index = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = content[i];
+                char b = other.content[j];
+                if (a < b) {
+                    merged[index++] = a;
+                    i++;
+                } else if (b < a) {
+                    merged[index++] = b;
+                    j++;
+                } else {
+                    merged[index++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                merged[index++] = content[i++];
+            }
+            while (j < other.cardinality) {
+                merged[index++] = other.content[j++];
+            }
+            return new ArrayContainer(merged, index);
+        }
+
+        // Offsets that are (keep = true) or are not (keep = false) in the other container
+        Container filter(Container other, boolean keep) {
+            char[] kept = new char[cardinality];
+            int index = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(content[i]) == keep) {
+                    kept[index++] = content[i];
+                }
+            }
+            return index == 0 ? null : new ArrayContainer(kept, index);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(int low) {
+            if (!contains(low)) {
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            if (!contains(low)) {
+                return this;
+            }
+            words[low >>> 6] &= ~(1L << low);
+            cardinality--;
+            // Back to an array once that is no larger
+            return cardinality <= ARRAY_MAX ? fromWords(words) : this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int w = 0; w < WORDS; w++) {
+                target[w] |= words[w];
+            }
+        }
+
+        @Override
+        int fill(int[] out, int index, int high) {
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[index++] = (high | (w << 6) + Long.numberOfTrailingZeros(word)) ^ Integer.MIN_VALUE;
+                    word &= word - 1;
+                }
+            }
+            return index;
+        }
+
+        @Override
+        int runCount() {
+            return countRuns(words);
+        }
+    }
+
+    private static final class RunContainer extends Container {
+        private final int[] starts;  // First offset of each run
+        private final int[] lengths; // Run i covers starts[i] .. starts[i] + lengths[i]
+        private final int runs;
+
+        RunContainer(int[] starts, int[] lengths, int runs) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.runs = runs;
+        }
+
+        // Run encoding of a bitmap known to have the given number of runs
+        static RunContainer ofWords(long[] words, int runs) {
+            int[] starts = new int[runs];
+            int[] lengths = new int[runs];
+            int count = 0;
+            int offset = 0;
+            while (offset < WORDS * 64) {
+                int start = nextSetBit(words, offset);
+                if (start < 0) {
+                    break;
+                }
+                int end = nextClearBit(words, start);
+                starts[count] = start;
+                lengths[count] = end - start - 1;
+                count++;
+                offset = end;
+            }
+            return new RunContainer(starts, lengths, count);
+        }
+
+        @Override
+        int cardinality() {
+            int total = 0;
+            for (int i = 0; i < runs; i++) {
+                total += lengths[i] + 1;
+            }
+            return total;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int index = Arrays.binarySearch(starts, 0, runs, low);
+            if (index >= 0) {
+                return true;
+            }
+            int run = -index - 2; // Last run starting before low
+            return run >= 0 && low <= starts[run] + lengths[run];
+        }
+
+        @Override
+        Container add(int low) {
+            if (contains(low)) {
+                return this;
+            }
+            long[] words = toWords();
+            words[low >>> 6] |= 1L << low;
+            return arrayOrRun(words);
+        }
+
+        @Override
+        Container remove(int low) {
+            if (!contains(low)) {
+                return this;
+            }
+            long[] words = toWords();
+            words[low >>> 6] &= ~(1L << low);
+            return arrayOrRun(words);
+        }
+
+        // After a point change, keep runs if they are still the smaller encoding
+        private static Container arrayOrRun(long[] words) {
+            Container plain = fromWords(words);
+            if (plain == null) {
+                return null;
+            }
+            int runs = countRuns(words);
+            int plainBytes = Math.min(2 * plain.cardinality(), 2 * WORDS * 4);
+            return 2 + 4 * runs < plainBytes ? ofWords(words, runs) : plain;
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(starts, runs), Arrays.copyOf(lengths, runs), runs);
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            orInto(words);
+            return words;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < runs; i++) {
+                setRange(words, starts[i], starts[i] + lengths[i] + 1);
+            }
+        }
+
+        @Override
+        int fill(int[] out, int index, int high) {
+            for (int i = 0; i < runs; i++) {
+                for (int low = starts[i]; low <= starts[i] + lengths[i]; low++) {
+                    out[index++] = (high | low) ^ Integer.MIN_VALUE;
+                }
+            }
+            return index;
+        }
+
+        @Override
+        int runCount() {
+            return runs;
+        }
+    }
+
+    // Runs of set bits: a run starts at each set bit whose lower neighbour is clear
+    private static int countRuns(long[] words) {
+        int runs = 0;
+        long carry = 0; // Top bit of the previous word
+        for (long word : words) {
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+        }
+        return runs;
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int w = from >>> 6;
+        if (w >= WORDS) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == WORDS) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] words, int from) {
+        int w = from >>> 6;
+        if (w >= WORDS) {
+            return from;
+        }
+        long word = ~words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == WORDS) {
+                return WORDS * 64;
+            }
+            word = ~words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -1,64 +1,29 @@
-public class SetFunctions {
-
-    // Function to add numbers manually and track used values
-    public static boolean isInjective(int[] domain) {
-        // Store calculated outputs
-        int[] usedOutputs = new int[domain.length];
-        int outputCount = 0;
+import java.util.function.IntUnaryOperator;
 
-        // Go through each input value
-        for(int i = 0; i < domain.length; i++) {
-            // Calculate output (example: multiply by 2)
-            int output = domain[i] * 2;
+public class SetFunctions {
 
-            // Check if output was already used
-            for(int j = 0; j < outputCount; j++) {
-                if(output == usedOutputs[j]) {
-                    return false;  // Found duplicate output
-                }
-            }
+    // The example function used throughout: f(x) = 2x
+    private static final IntUnaryOperator DOUBLE = x -> x * 2;
 
-            // If not used, store the output
-            usedOutputs[outputCount] = output;
-            outputCount++;
-        }
-        return true;  // No duplicates found
+    // Checks that no two domain values map to the same output
+    // FunctionAnalyzer compares outputs in a hash set, so this is O(n)
+    public static boolean isInjective(int[] domain) {
+        return FunctionAnalyzer.isInjective(domain, DOUBLE);
     }
 
     // Check if function maps to all codomain values
     public static boolean isSurjective(int[] domain, int[] codomain) {
-        // Check each value in codomain
-        for(int i = 0; i < codomain.length; i++) {
-            boolean found = false;
-
-            // Look through domain values
-            for(int j = 0; j < domain.length; j++) {
-                // Calculate output (example: multiply by 2)
-                int output = domain[j] * 2;
-
-                if(output == codomain[i]) {
-                    found = true;  // Found matching output
-                    break;
-                }
-            }
-
-            if(!found) {
-                return false;  // Missing codomain value
-            }
-        }
-        return true;  // All values mapped to
+        return FunctionAnalyzer.isSurjective(domain, codomain, DOUBLE);
     }
 
     // Map function to each domain value
     public static int[] mapFunction(int[] domain) {
-        int[] results = new int[domain.length];
-
-        // Apply function to each value
-        for(int i = 0; i < domain.length; i++) {
-            results[i] = domain[i] * 2;  // Example function
-        }
+        return FunctionAnalyzer.map(domain, DOUBLE);
+    }
 
-        return results;
+    // Index for looking up every domain value with a given output
+    public static PreimageIndex preimageIndex(int[] domain) {
+        return PreimageIndex.build(domain, DOUBLE);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,260 @@
+import ProofStrategies.VectorSupport;
+
+import java.util.Arrays;
+
+/*
+ * Set algebra on sorted int arrays.
+ *
+ * A set is represented as an int[] in strictly increasing order (sorted, no
+ * duplicates); toSortedSet converts any int[] into this form. Every result
+ * is again a sorted set, so operations can be chained without re-sorting.
+ *
+ * - Inputs of similar size are combined with a linear merge, O(n + m).
+ * - When one input is much smaller, each of its elements is located in the
+ *   larger input by galloping (exponential) search from the previous
+ *   position, O(m log(n / m)) for m much smaller than n.
+ * - Intersection of similar-sized inputs uses the SIMD kernel in
+ *   SortedSetVectorKernels when the Vector API module is present.
+ *
+ * Inputs are assumed to be sorted sets and are not checked.
+ */
+public class SortedIntSets {
+    // Galloping is used when one input is at least this many times larger
+    private static final int GALLOP_RATIO = 32;
+
+    // Inputs shorter than this are intersected with the scalar merge
+    private static final int VECTOR_THRESHOLD = 64;
+
+    public static void main(String[] args) {
+        int[] setA = toSortedSet(new int[]{5, 1, 3, 9, 7, 3});
+        int[] setB = toSortedSet(new int[]{2, 3, 4, 5, 6});
+
+        System.out.println("A = " + Arrays.toString(setA));
+        System.out.println("B = " + Arrays.toString(setB));
+        System.out.println("A union B = " + Arrays.toString(union(setA, setB)));
+        System.out.println("A intersect B = " + Arrays.toString(intersection(setA, setB)));
+        System.out.println("A minus B = " + Arrays.toString(difference(setA, setB)));
+        System.out.println("(A intersect B) is a subset of A: " + isSubset(intersection(setA, setB), setA));
+    }
+
+    // Sorts a copy of the array and removes duplicates
+    public static int[] toSortedSet(int[] elements) {
+        int[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        int length = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (length == 0 || sorted[i] != sorted[length - 1]) {
+                sorted[length++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, length);
+    }
+
+    // Elements in setA or setB
+    public static int[] union(int[] setA, int[] setB) {
+        int[] small = setA.length <= setB.length ? setA : setB;
+        int[] large = small == setA ? setB : setA;
+        int[] result = new int[setA.length + setB.length];
+        int index = 0;
+
+        if ((long) small.length * GALLOP_RATIO <= large.length) {
+            // Copy whole runs of the large set between the elements of the small one
+            int position = 0;
+            for (int x : small) {
+                int next = gallop(large, position, x);
+                System.arraycopy(large, position, result, index, next - position);
+                index += next - position;
+                result[index++] = x;
+                position = next < large.length && large[next] == x ? next + 1 : next;
+            }
+            System.arraycopy(large, position, result, index, large.length - position);
+            index += large.length - position;
+            return Arrays.copyOf(result, index);
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < setA.length && j < setB.length) {
+            int a = setA[i];
+            int b = setB[j];
+            if (a < b) {
+                result[index++] = a;
+                i++;
+            } else if (b < a) {
+                result[index++] = b;
+                j++;
+            } else {
+                result[index++] = a;
+                i++;
+                j++;
+            }
+        }
+        System.arraycopy(setA, i, result, index, setA.length - i);
+        index += setA.length - i;
+        System.arraycopy(setB, j, result, index, setB.length - j);
+        index += setB.length - j;
+        return Arrays.copyOf(result, index);
+    }
+
+    // Elements in both setA and setB
+    public static int[] intersection(int[] setA, int[] setB) {
+        int[] small = setA.length <= setB.length ? setA : setB;
+        int[] large = small == setA ? setB : setA;
+        int[] result = new int[small.length];
+        int index = 0;
+
+        if ((long) small.length * GALLOP_RATIO <= large.length) {
+            int position = 0;
+            for (int x : small) {
+                position = gallop(large, position, x);
+                if (position == large.length) {
+                    break;
+                }
+                if (large[position] == x) {
+                    result[index++] = x;
+                }
+            }
+            return Arrays.copyOf(result, index);
+        }
+
+        if (VectorSupport.AVAILABLE && small.length >= VECTOR_THRESHOLD) {
+            index = SortedSetVectorKernels.intersect(setA, setB, result);
+            return Arrays.copyOf(result, index);
+        }
+
+        index = mergeIntersect(setA, 0, setB, 0, result, 0);
+        return Arrays.copyOf(result, index);
+    }
+
+    // Elements in setA but not in setB
+    public static int[] difference(int[] setA, int[] setB) {
+        int[] result = new int[setA.length];
+        int index = 0;
+
+        if ((long) setA.length * GALLOP_RATIO <= setB.length) {
+            // setA is small: look each element up in setB
+            int position = 0;
+            for (int x : setA) {
+                position = gallop(setB, position, x);
+                if (position == setB.length || setB[position] != x) {
+                    result[index++] = x;
+                }
+            }
+            return Arrays.copyOf(result, index);
+        }
+
+        if ((long) setB.length * GALLOP_RATIO <= setA.length) {
+            // setB is small: copy the runs of setA between its elements
+            int position = 0;
+            for (int x : setB) {
+                int next = gallop(setA, position, x);
+                System.arraycopy(setA, position, result, index, next - position);
+                index += next - position;
+                position = next < setA.length && setA[next] == x ? next + 1 : next;
+            }
+            System.arraycopy(setA, position, result, index, setA.length - position);
+            index += setA.length - position;
+            return Arrays.copyOf(result, index);
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < setA.length && j < setB.length) {
+            int a = setA[i];
+            int b = setB[j];
+            if (a < b) {
+                result[index++] = a;
+                i++;
+            } else if (b < a) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        System.arraycopy(setA, i, result, index, setA.length - i);
+        index += setA.length - i;
+        return Arrays.copyOf(result, index);
+    }
+
+    // Checks if all elements of setA exist in setB
+    public static boolean isSubset(int[] setA, int[] setB) {
+        if (setA.length > setB.length) {
+            return false;
+        }
+        if ((long) setA.length * GALLOP_RATIO <= setB.length) {
+            int position = 0;
+            for (int x : setA) {
+                position = gallop(setB, position, x);
+                if (position == setB.length || setB[position] != x) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int j = 0;
+        for (int x : setA) {
+            while (j < setB.length && setB[j] < x) {
+                j++;
+            }
+            if (j == setB.length || setB[j] != x) {
+                return false;
+            }
+            j++;
+        }
+        return true;
+    }
+
+    /**
+     * Scalar merge intersection of a[i..] and b[j..], writing into result from index.
+     *
+     * @return The index after the last element written
+     */
+    static int mergeIntersect(int[] a, int i, int[] b, int j, int[] result, int index) {
+        while (i < a.length && j < b.length) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y) {
+                i++;
+            } else if (y < x) {
+                j++;
+            } else {
+                result[index++] = x;
+                i++;
+                j++;
+            }
+        }
+        return index;
+    }
+
+    /*
+     * Galloping search: the first index >= from whose element is >= key.
+     * Probes from + 1, from + 3, from + 7, ... until the key is passed, then
+     * binary searches the last gap, so the cost is O(log d) for a distance d.
+     */
+    static int gallop(int[] array, int from, int key) {
+        if (from >= array.length || array[from] >= key) {
+            return from;
+        }
+        // Invariant: array[low] < key
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < array.length && array[high] < key) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, array.length);
+        // Binary search for the first element >= key in (low, high]
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,62 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * SIMD intersection of sorted sets.
+ *
+ * Both inputs are walked in blocks of one vector each. Every element of the
+ * current B block is broadcast and compared with the whole A block, and the
+ * A lanes that matched are written out. Then the block whose last element
+ * is smaller (or both, if equal) moves on, as in a scalar merge. Because the
+ * inputs are sorted and duplicate-free, each match is found exactly once and
+ * the output stays sorted. The remaining tail is finished by the scalar merge.
+ *
+ * Needs --add-modules jdk.incubator.vector; SortedIntSets only calls it when
+ * the module is present.
+ */
+final class SortedSetVectorKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    private SortedSetVectorKernels() {
+    }
+
+    /**
+     * Writes the intersection of two sorted sets into result.
+     *
+     * @param result An array at least as long as the smaller input
+     * @return The number of elements written
+     */
+    static int intersect(int[] a, int[] b, int[] result) {
+        int lanes = INTS.length();
+        int i = 0;
+        int j = 0;
+        int index = 0;
+
+        while (i + lanes <= a.length && j + lanes <= b.length) {
+            IntVector blockA = IntVector.fromArray(INTS, a, i);
+            VectorMask<Integer> matched = blockA.eq(b[j]);
+            for (int k = 1; k < lanes; k++) {
+                matched = matched.or(blockA.eq(b[j + k]));
+            }
+
+            // Copy the matching A lanes in lane order
+            long bits = matched.toLong();
+            while (bits != 0) {
+                int lane = Long.numberOfTrailingZeros(bits);
+                result[index++] = a[i + lane];
+                bits &= bits - 1;
+            }
+
+            int lastA = a[i + lanes - 1];
+            int lastB = b[j + lanes - 1];
+            if (lastA <= lastB) {
+                i += lanes;
+            }
+            if (lastB <= lastA) {
+                j += lanes;
+            }
+        }
+        return SortedIntSets.mergeIntersect(a, i, b, j, result, index);
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.Random;
+import java.util.stream.IntStream;
+
 public class TriangleInequalityC {
 
     // Class to represent a complex number
@@ -11,24 +14,9 @@ public class TriangleInequalityC {
             this.imaginary = imaginary;
         }
 
-        // Method to manually calculate the modulus (absolute value) of the complex number
+        // Method to calculate the modulus (absolute value) of the complex number
         public double modulus() {
-            // First calculate the square of the real and imaginary parts
-            double realSquared = real * real;
-            double imaginarySquared = imaginary * imaginary;
-
-            // Sum of squares of real and imaginary parts
-            double sumOfSquares = realSquared + imaginarySquared;
-
-            // Use Newton's method to approximate the square root
-            double guess = sumOfSquares / 2; // Initial guess
-            double epsilon = 0.0001; // Precision of the result
-
-            while (Math.abs(guess * guess - sumOfSquares) > epsilon) {
-                guess = (guess + sumOfSquares / guess) / 2; // Newton's method
-            }
-
-            return guess; // Return the computed modulus (approximated square root)
+            return TriangleInequalityC.modulus(real, imaginary);
         }
 
         // Method to add two complex numbers
@@ -42,6 +30,111 @@ public class TriangleInequalityC {
         }
     }
 
+    // Relative rounding error allowed before |z1 + z2| > |z1| + |z2| counts as a violation
+    private static final double RELATIVE_TOLERANCE = 1e-15;
+
+    // sqrt(re^2 + im^2) without overflow or underflow; shared with ComplexArray
+    public static double modulus(double re, double im) {
+        return ComplexArray.modulus(re, im);
+    }
+
+    // Summary of a batch check
+    public static final class BatchResult {
+        private final long violations;
+        private final long undefined;
+        private final double worstSlack;
+        private final int worstIndex;
+
+        BatchResult(long violations, long undefined, double worstSlack, int worstIndex) {
+            this.violations = violations;
+            this.undefined = undefined;
+            this.worstSlack = worstSlack;
+            this.worstIndex = worstIndex;
+        }
+
+        // Number of pairs with |z1 + z2| > |z1| + |z2| beyond rounding error
+        public long violations() {
+            return violations;
+        }
+
+        // Number of pairs whose slack is NaN, which are left out of the other results
+        public long undefined() {
+            return undefined;
+        }
+
+        // Smallest slack |z1| + |z2| - |z1 + z2| seen (negative means the inequality failed)
+        public double worstSlack() {
+            return worstSlack;
+        }
+
+        // Index of the pair with the smallest slack, or -1 if no pair has a defined slack
+        public int worstIndex() {
+            return worstIndex;
+        }
+
+        @Override
+        public String toString() {
+            return "violations=" + violations + ", undefined=" + undefined
+                    + ", worst slack=" + worstSlack + " at " + worstIndex;
+        }
+    }
+
+    // Running totals for the parallel stream in the batch check
+    private static final class Accumulator {
+        long violations;
+        long undefined;
+        double worstSlack = Double.POSITIVE_INFINITY;
+        int worstIndex = -1;
+
+        void add(double slack, boolean violated, int index) {
+            if (slack != slack) {
+                undefined++; // NaN compares false with everything, so it could never become the worst
+                return;
+            }
+            if (violated) {
+                violations++;
+            }
+            if (slack < worstSlack || slack == worstSlack && index < worstIndex) {
+                worstSlack = slack;
+                worstIndex = index;
+            }
+        }
+
+        void combine(Accumulator other) {
+            violations += other.violations;
+            undefined += other.undefined;
+            if (other.worstIndex >= 0) {
+                add(other.worstSlack, false, other.worstIndex);
+            }
+        }
+    }
+
+    /**
+     * Checks |z1 + z2| <= |z1| + |z2| for many pairs stored as primitive
+     * arrays, z1 = re1[i] + im1[i] i and z2 = re2[i] + im2[i] i, using a
+     * parallel stream. Nothing is allocated per pair.
+     *
+     * A pair whose slack is NaN is counted in undefined() and otherwise
+     * ignored: it is neither a violation nor a candidate for the worst pair.
+     * This happens when a part is NaN or infinite, or when the moduli
+     * overflow to infinity (near Double.MAX_VALUE).
+     *
+     * @return The number of violations and undefined pairs, and the smallest slack observed
+     */
+    public static BatchResult checkTriangleInequality(double[] re1, double[] im1, double[] re2, double[] im2) {
+        int n = re1.length;
+        if (im1.length != n || re2.length != n || im2.length != n) {
+            throw new IllegalArgumentException("All arrays must have the same length.");
+        }
+        Accumulator total = IntStream.range(0, n).parallel().collect(Accumulator::new, (acc, i) -> {
+            double bound = modulus(re1[i], im1[i]) + modulus(re2[i], im2[i]);
+            double modSum = modulus(re1[i] + re2[i], im1[i] + im2[i]);
+            double slack = bound - modSum;
+            acc.add(slack, slack < -RELATIVE_TOLERANCE * bound, i);
+        }, Accumulator::combine);
+        return new BatchResult(total.violations, total.undefined, total.worstSlack, total.worstIndex);
+    }
+
     // Method to check the triangle inequality for two complex numbers
     public static boolean checkTriangleInequality(ComplexNumber z1, ComplexNumber z2) {
         // Calculate the modulus of individual numbers
@@ -68,5 +161,29 @@ public class TriangleInequalityC {
         System.out.println("z1: " + z1);
         System.out.println("z2: " + z2);
         System.out.println("Triangle inequality holds for z1 and z2? " + isValid);
+
+        // Moduli of huge and tiny numbers no longer overflow or loop
+        System.out.println("|1e200 + 1e200i| = " + new ComplexNumber(1e200, 1e200).modulus());
+        System.out.println("|3e-200 + 4e-200i| = " + new ComplexNumber(3e-200, 4e-200).modulus());
+
+        // A million random pairs at once
+        int n = 1_000_000;
+        Random random = new Random(1);
+        double[] re1 = new double[n];
+        double[] im1 = new double[n];
+        double[] re2 = new double[n];
+        double[] im2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            re1[i] = random.nextGaussian();
+            im1[i] = random.nextGaussian();
+            // Some pairs point the same way, where the inequality is an equality
+            double scale = random.nextDouble();
+            re2[i] = i % 2 == 0 ? scale * re1[i] : random.nextGaussian();
+            im2[i] = i % 2 == 0 ? scale * im1[i] : random.nextGaussian();
+        }
+        long start = System.nanoTime();
+        BatchResult result = checkTriangleInequality(re1, im1, re2, im2);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Batch of " + n + " pairs: " + result + " (" + elapsed / 1_000_000 + " ms)");
     }
 }